@@ -24,7 +24,8 @@ abstract class AbstractClause implements FunctionTraits, DataTypeTraits, ScriptT
         if (this instanceof Query) {
             _ctx.ownQuery = this
         }
-        set$SESSION(_ctx.ownerSession.sessionVariables)
+        // dehydrated part queries are detached from any session
+        set$SESSION(_ctx.ownerSession?.sessionVariables)
     }
 
     @CompileStatic
@@ -88,6 +88,29 @@ class DSL {
         RUN($IMPORT(scriptName))
     }
 
+    /**
+     * Runs all scripts declared using <code>RUN</code> inside the given closure concurrently,
+     * each on a separate connection. The number of scripts running at once is limited
+     * by the configured parallel concurrency.
+     *
+     * Note: Not allowed within a transaction, since the scripts cannot share its connection.
+     *
+     * @param closure block declaring scripts to run.
+     * @return results of scripts in the declared order.
+     */
+    List<Object> PARALLEL(@DelegatesTo(value = ParallelRuns, strategy = Closure.DELEGATE_FIRST) Closure closure) {
+        if (session.isInTransaction()) {
+            throw new NySyntaxException('PARALLEL block is not allowed inside a TRANSACTION!')
+        }
+
+        ParallelRuns parallelRuns = new ParallelRuns(this)
+        def code = closure.rehydrate(parallelRuns, this, this)
+        code.resolveStrategy = Closure.DELEGATE_FIRST
+        code()
+
+        parallelRuns.execute(session.configurations.parallelMaxConcurrency())
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////
     ////
     ////   Query Related Commands
@@ -192,6 +215,16 @@ class DSL {
         proxy
     }
 
+    QResultProxy bulkUpsert(@DelegatesTo(value = UpsertQuery, strategy = Closure.DELEGATE_ONLY) Closure closure) {
+        UpsertQuery qu = new UpsertQuery(createContext())
+
+        def code = closure.rehydrate(qu, this, this)
+        code.resolveStrategy = Closure.DELEGATE_ONLY
+        code()
+
+        qu.createBatchProxy()
+    }
+
     QResultProxy delete(@DelegatesTo(value = QueryDelete, strategy = Closure.DELEGATE_ONLY) Closure closure) {
         QueryDelete qs = new QueryDelete(createContext())
         //Object qs = assignTraits(queryDelete)
@@ -360,6 +393,8 @@ class DSL {
     @SuppressWarnings('CatchThrowable')
     DSL TRANSACTION(@DelegatesTo(value = DSL, strategy = Closure.DELEGATE_ONLY) Closure closure) {
         try {
+            // tracked in session, so that scripts imported within the transaction see it too
+            session.intoTransaction()
             session.executor.startTransaction()
 
             def code = closure.rehydrate(this, this, this)
@@ -377,6 +412,7 @@ class DSL {
         } finally {
             session.executor.done()
             currentTransactionAutoCommit = false
+            session.outFromTransaction()
         }
         this
     }
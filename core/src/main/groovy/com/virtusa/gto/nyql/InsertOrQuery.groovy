@@ -42,10 +42,20 @@ class InsertOrQuery extends UpsertQuery {
             whereObj = convertAssignToWhere(_assigns)
         }
         final QScript scriptSelect = createSelectQuery(qContext, qSession)
-        final QScript scriptInsert = createInsertQuery(qContext, qSession)
 
         QScriptList scriptList = new QScriptList(id: qSession?.currentActiveScript())
         scriptList.baseQuery = this
+
+        QResultProxy proxyNative = _ctx.translator.___insertOrLoadQuery(this)
+        if (proxyNative != null) {
+            // select is kept to load a record inserted concurrently, but not visible to the statement
+            QScript scriptNative = new QScript(id: qSession?.currentActiveScript(), qSession: qSession, proxy: proxyNative)
+            scriptList.scripts = [scriptNative, scriptSelect]
+            scriptList.type = QScriptListType.INSERT_OR_LOAD_NATIVE
+            return scriptList
+        }
+
+        final QScript scriptInsert = createInsertQuery(qContext, qSession)
         scriptList.scripts = [scriptSelect, scriptInsert]
         scriptList.type = QScriptListType.INSERT_OR_LOAD
         scriptList
@@ -0,0 +1,130 @@
+package com.virtusa.gto.nyql
+
+import com.virtusa.gto.nyql.model.QScript
+import com.virtusa.gto.nyql.model.QScriptResult
+import com.virtusa.gto.nyql.model.QSession
+import com.virtusa.gto.nyql.utils.QAsyncRunner
+import groovy.transform.CompileStatic
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+
+/**
+ * Collects scripts declared inside a <code>PARALLEL</code> block and executes them
+ * concurrently, each using its own executor, hence its own pooled connection.
+ * Scripts which cannot run concurrently within the limit run in the declaring thread.
+ *
+ * Scripts are parsed in the declaring thread, in the declared order. Each script handed
+ * over to another thread runs in its own child session, since the declaring session
+ * need not be thread-safe and keeps being used by the declaring thread.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class ParallelRuns {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelRuns)
+
+    private final DSL dsl
+    private final List<QScript> scripts = []
+
+    ParallelRuns(DSL theDsl) {
+        dsl = theDsl
+    }
+
+    def RUN(QScript script) {
+        scripts.add(script)
+        this
+    }
+
+    def RUN(QResultProxy proxy) {
+        RUN(dsl.session.scriptRepo.parse(proxy, dsl.session))
+    }
+
+    def RUN(String scriptName) {
+        RUN(dsl.$IMPORT(scriptName))
+    }
+
+    /**
+     * Executes all collected scripts, running at most given number of scripts at once.
+     *
+     * Scripts run in the asynchronous runner of the instance, hence within its concurrency
+     * limit together with all other asynchronous scripts. When the limit has been reached,
+     * the declaring thread runs the script by itself, using its own connection, instead of
+     * waiting for others to complete. So a block never claims more connections than the pool
+     * has, even when it runs inside an asynchronous script.
+     *
+     * If any of the scripts fails, the ones not yet started are cancelled and the failure
+     * is thrown.
+     *
+     * @param maxConcurrency maximum number of scripts to run at once.
+     * @return results of scripts in the declared order.
+     */
+    List<Object> execute(int maxConcurrency) throws Exception {
+        if (scripts.isEmpty()) {
+            return []
+        }
+
+        QSession session = dsl.session
+        QAsyncRunner runner = session.configurations.asyncRunner()
+        int limit = Math.max(1, maxConcurrency)
+        LOGGER.debug('Running {} script(s) in parallel, at most {} at once.', scripts.size(), limit)
+
+        List<CompletableFuture<Object>> futures = new ArrayList<CompletableFuture<Object>>(scripts.size())
+        try {
+            for (QScript script : scripts) {
+                QScript toRun = script
+                CompletableFuture<Object> future = null
+                // declaring thread is also running scripts, hence counted within the limit
+                if (running(futures) < limit - 1) {
+                    QSession child = session.createChild()
+                    QScript childScript = toRun instanceof QScriptResult ? toRun : toRun.spawn(child)
+                    future = runner.trySubmit({ runInChild(child, childScript) } as Callable<Object>)
+                }
+                if (future == null) {
+                    LOGGER.trace('Concurrency limit reached. Running script in the declaring thread.')
+                    future = CompletableFuture.completedFuture(dsl.RUN(toRun))
+                }
+                futures.add(future)
+            }
+
+            List<Object> results = new ArrayList<Object>(futures.size())
+            for (CompletableFuture<Object> future : futures) {
+                try {
+                    results.add(future.get())
+                } catch (ExecutionException ex) {
+                    throw ex.cause
+                }
+            }
+            return results
+
+        } catch (Exception ex) {
+            for (CompletableFuture<Object> future : futures) {
+                future.cancel(false)
+            }
+            throw ex
+        }
+    }
+
+    private static Object runInChild(QSession child, QScript script) {
+        try {
+            return child.execute(script)
+        } finally {
+            child.free()
+        }
+    }
+
+    private static int running(List<CompletableFuture<Object>> futures) {
+        int count = 0
+        for (CompletableFuture<Object> future : futures) {
+            if (!future.isDone()) {
+                count++
+            }
+        }
+        count
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.virtusa.gto.nyql
 
+import com.virtusa.gto.nyql.model.QueryTemplate
 import com.virtusa.gto.nyql.model.units.AParam
+import com.virtusa.gto.nyql.model.units.ParamList
 import com.virtusa.gto.nyql.utils.QReturnType
 import com.virtusa.gto.nyql.utils.QueryType
 import groovy.transform.CompileStatic
@@ -21,6 +23,41 @@ class QResultProxy {
     def rawObject
     Query qObject
 
+    private volatile QueryTemplate queryTemplate
+
+    void setQuery(String theQuery) {
+        this.query = theQuery
+        this.queryTemplate = null
+    }
+
+    void setOrderedParameters(List<AParam> params) {
+        this.orderedParameters = params
+        this.queryTemplate = null
+    }
+
+    /**
+     * Returns the pre-split template of this query having parameter list placeholders
+     * as separate slots. Template will be created only once for a proxy.
+     *
+     * @return query template.
+     */
+    QueryTemplate getQueryTemplate() {
+        QueryTemplate template = queryTemplate
+        if (template == null) {
+            Set<String> listParams = new LinkedHashSet<>()
+            if (orderedParameters != null) {
+                for (AParam param : orderedParameters) {
+                    if (param instanceof ParamList) {
+                        listParams.add(param.__name)
+                    }
+                }
+            }
+            template = QueryTemplate.compile(query, listParams)
+            queryTemplate = template
+        }
+        template
+    }
+
     /**
      * Creates a new proxy result instance by removing session related entities.
      *
@@ -11,6 +11,8 @@ class QueryInsert extends QuerySelect {
 
     Map<String, Object> _data = new LinkedHashMap<>()
     Assign _assigns = null
+    boolean _multiRow = false
+    int _multiRowLimit = 0
 
     QueryInsert(QContext contextParam) {
         super(contextParam)
@@ -51,4 +53,18 @@ class QueryInsert extends QuerySelect {
         return this
     }
 
+    /**
+     * Inserts bulk records using multi-row VALUES statements, instead of a
+     * single row statement per record.
+     *
+     * @param maxRows maximum number of rows per statement. If zero, it will be bounded
+     *                only by the database parameter limit.
+     * @return this query instance.
+     */
+    QueryInsert MULTI_ROW(int maxRows = 0) {
+        _multiRow = true
+        _multiRowLimit = maxRows
+        this
+    }
+
 }
@@ -1,10 +1,12 @@
 package com.virtusa.gto.nyql;
 
 import com.virtusa.gto.nyql.exceptions.NyException;
+import com.virtusa.gto.nyql.exceptions.NySyntaxException;
 import com.virtusa.gto.nyql.model.QScript;
 import com.virtusa.gto.nyql.model.QScriptList;
 import com.virtusa.gto.nyql.model.QScriptListType;
 import com.virtusa.gto.nyql.model.QSession;
+import com.virtusa.gto.nyql.utils.QueryType;
 import groovy.transform.CompileStatic;
 
 /**
@@ -16,6 +18,7 @@ class UpsertQuery extends QueryUpdate implements MultiQuery {
     ReturnType returningType = ReturnType.NONE
     Assign _updateSet;
     List<Object> returningColumns
+    List<Object> conflictColumns
 
     UpsertQuery(QContext contextParam) {
         super(contextParam);
@@ -45,6 +48,22 @@ class UpsertQuery extends QueryUpdate implements MultiQuery {
         this
     }
 
+    /**
+     * Declares the columns of the unique key which identifies the record to upsert.
+     * Required by databases detecting existing records through unique keys,
+     * in order to upsert using a single statement.
+     *
+     * @param columns unique key columns.
+     * @return this query instance.
+     */
+    UpsertQuery ON_CONFLICT(Object... columns) {
+        if (conflictColumns == null) {
+            conflictColumns = new LinkedList<>()
+        }
+        conflictColumns.addAll(columns)
+        this
+    }
+
     UpsertQuery UPDATE_SET(@DelegatesTo(value = Assign, strategy = Closure.DELEGATE_ONLY) Closure closure) {
         Assign ass = new Assign(_ctx, this)
 
@@ -84,6 +103,16 @@ class UpsertQuery extends QueryUpdate implements MultiQuery {
         if (whereObj == null || !whereObj.__hasClauses()) {
             throw new NyException('WHERE clause is mandatory for upsert queries!')
         }
+
+        QResultProxy proxyNative = _ctx.translator.___upsertQuery(this)
+        if (proxyNative != null) {
+            QScriptList scriptList = new QScriptList(id: qSession?.currentActiveScript())
+            scriptList.baseQuery = this
+            scriptList.scripts = [new QScript(id: qSession?.currentActiveScript(), qSession: qSession, proxy: proxyNative)]
+            scriptList.type = QScriptListType.UPSERT
+            return scriptList
+        }
+
         final QScript scriptSelect = createSelectQuery(qContext, qSession)
         final QScript scriptInsert = createInsertQuery(qContext, qSession)
 
@@ -112,6 +141,31 @@ class UpsertQuery extends QueryUpdate implements MultiQuery {
         scriptList
     }
 
+    /**
+     * Creates the native single statement upsert to be executed as a batch, once per
+     * each record. Sequential queries of an upsert cannot be batched, hence the
+     * active database must support upserting using a single statement.
+     *
+     * @return batch upsert query.
+     * @throws Exception when the upsert cannot be executed as a batch.
+     */
+    QResultProxy createBatchProxy() throws Exception {
+        if (whereObj == null || !whereObj.__hasClauses()) {
+            throw new NyException('WHERE clause is mandatory for upsert queries!')
+        }
+        if (returningType != ReturnType.NONE) {
+            throw new NySyntaxException('Bulk upserts cannot return records!')
+        }
+
+        QResultProxy proxy = _ctx.translator.___upsertQuery(this)
+        if (proxy == null) {
+            throw new NySyntaxException('Active database cannot upsert this query using a single statement, ' +
+                    'hence cannot be executed as a bulk upsert! Check whether ON_CONFLICT columns have been declared.')
+        }
+        proxy.setQueryType(QueryType.BULK_UPSERT)
+        proxy
+    }
+
     static enum ReturnType {
         RECORD_BEFORE,
         RECORD_AFTER,
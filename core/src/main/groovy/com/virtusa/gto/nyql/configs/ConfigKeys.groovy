@@ -37,6 +37,12 @@ final class ConfigKeys {
     static final JDBC_DRIVER_CLASS_KEY = 'jdbcDriverClass'
     static final JDBC_DATASOURCE_CLASS_KEY = 'jdbcDataSourceClass'
 
+    static final String STATEMENT_CACHE_SIZE = 'statementCacheSize'
+    static final String PARAM_LIST_PADDING = 'paramListPadding'
+    static final String BATCH_SIZE = 'batchSize'
+    static final String BATCH_COMMIT_INTERVAL = 'batchCommitInterval'
+    static final String FETCH_SIZE = 'fetchSize'
+
     static final QUERY_TIMESTAMP_FORMAT = 'inputTimestampFormat'
     static final QUERY_TIMESTAMP_LOCALE = 'inputTimestampLocale'
 
@@ -8,6 +8,7 @@ import com.virtusa.gto.nyql.model.impl.QNoProfiling
 import com.virtusa.gto.nyql.model.impl.QProfExecutorFactory
 import com.virtusa.gto.nyql.model.impl.QProfRepository
 import com.virtusa.gto.nyql.utils.Constants
+import com.virtusa.gto.nyql.utils.QAsyncRunner
 import com.virtusa.gto.nyql.utils.QUtils
 import com.virtusa.gto.nyql.utils.ReflectUtils
 import groovy.transform.CompileStatic
@@ -35,6 +36,9 @@ class Configurations {
             "com.virtusa.gto.nyql.model.units.AParam.ParamScope"
     ]
 
+    // default maximum pool size of hikari
+    private static final int DEF_ASYNC_CONCURRENCY = 10
+
     private static final Map Q_LOGGING_LEVELS = [trace: 1, debug: 2, info: 3, warn: 4, error: 5].asImmutable()
 
     protected DateTimeFormatter timestampFormatter = DateTimeFormatter.ISO_INSTANT
@@ -54,6 +58,8 @@ class Configurations {
     protected QRepositoryRegistry repositoryRegistry
     protected QMapperRegistry mapperRegistry
 
+    protected volatile QAsyncRunner asyncRunner
+
     @PackageScope Configurations() {}
 
     Configurations configure(Map configProps) throws NyException {
@@ -108,6 +114,9 @@ class Configurations {
         def factory = databaseRegistry.getDbFactory(activeDb)
         factory.init(this, dbInfo)
 
+        // repositories may now generate queries for the active database
+        repositoryRegistry.prepareAll()
+
         runBootstrapScript(activeDb, factory)
     }
 
@@ -296,6 +305,14 @@ class Configurations {
         LOGGER.debug('Shutting down nyql...')
         safeClose('Executors') { executorRegistry.shutdown() }
         safeClose('Repositories') { repositoryRegistry.shutdown() }
+        safeClose('Async Runner') {
+            synchronized (lock) {
+                if (asyncRunner != null) {
+                    asyncRunner.close()
+                    asyncRunner = null
+                }
+            }
+        }
         safeClose('Profiler') {
             if (profiler != null) {
                 profiler.close()
@@ -325,6 +342,121 @@ class Configurations {
         cacheVarName
     }
 
+    String cachingShapeVarName() {
+        properties.caching.shapeVariableName ?: Constants.DSL_CACHE_SHAPE_VARIABLE_NAME
+    }
+
+    String classCacheDir() {
+        (String) properties.caching.classCacheDir
+    }
+
+    int compileThreads() {
+        Object threads = properties.caching.compileThreads
+        threads != null ? Integer.parseInt(String.valueOf(threads)) : Runtime.getRuntime().availableProcessors()
+    }
+
+    boolean isStaticDsl() {
+        (boolean) (properties.caching.staticDsl ?: false)
+    }
+
+    boolean isPreTranslateQueries() {
+        (boolean) (properties.caching.preTranslateQueries ?: false)
+    }
+
+    boolean isWatchScripts() {
+        (boolean) (properties.caching.watchScripts ?: false)
+    }
+
+    long watchDebounceMs() {
+        Object debounce = properties.caching.watchDebounceMs
+        debounce != null ? Long.parseLong(String.valueOf(debounce)) : 500L
+    }
+
+    boolean isRecycleSessions() {
+        (boolean) (properties.session?.recycle ?: false)
+    }
+
+    boolean isConcurrentSessions() {
+        (boolean) (properties.session?.concurrent ?: false)
+    }
+
+    /**
+     * Returns maximum number of scripts allowed to run asynchronously at once. Unless
+     * specified, this is the connection pool size of the default executor.
+     *
+     * @return maximum concurrency.
+     */
+    int asyncMaxConcurrency() {
+        Object limit = properties.async?.maxConcurrency
+        if (limit == null) {
+            limit = defaultExecutorProperties()?.pooling?.maximumPoolSize
+        }
+        limit != null ? Integer.parseInt(String.valueOf(limit)) : DEF_ASYNC_CONCURRENCY
+    }
+
+    boolean isAsyncVirtualThreads() {
+        properties.async?.virtualThreads != null ? (boolean) properties.async.virtualThreads : true
+    }
+
+    /**
+     * Returns the runner of asynchronous scripts shared by this instance, which limits
+     * the number of scripts running at once to {@link #asyncMaxConcurrency()}. Scripts of
+     * <code>PARALLEL</code> blocks also run within the same limit.
+     *
+     * @return shared asynchronous runner.
+     */
+    QAsyncRunner asyncRunner() {
+        QAsyncRunner runner = asyncRunner
+        if (runner == null) {
+            synchronized (lock) {
+                runner = asyncRunner
+                if (runner == null) {
+                    runner = new QAsyncRunner(asyncMaxConcurrency(), isAsyncVirtualThreads())
+                    asyncRunner = runner
+                }
+            }
+        }
+        runner
+    }
+
+    /**
+     * Returns maximum number of scripts of a <code>PARALLEL</code> block allowed to run at once.
+     * Unless specified, this is same as the asynchronous concurrency.
+     *
+     * @return maximum parallel concurrency.
+     */
+    int parallelMaxConcurrency() {
+        Object limit = properties.parallel?.maxConcurrency
+        limit != null ? Integer.parseInt(String.valueOf(limit)) : asyncMaxConcurrency()
+    }
+
+    private Map defaultExecutorProperties() {
+        if (properties.executor instanceof Map) {
+            return (Map) properties.executor
+        }
+        String defExec = properties.defaultExecutor ?: Constants.DEFAULT_EXECUTOR_NAME
+        (Map) ((List) properties.executors ?: []).find { Map exec -> exec.name == defExec }
+    }
+
+    int shapedQueriesMaxEntries() {
+        Map shaped = (Map) properties.caching.shapedQueries
+        shaped?.maxEntries != null ? Integer.parseInt(String.valueOf(shaped.maxEntries)) : 1024
+    }
+
+    long shapedQueriesMaxBytes() {
+        Map shaped = (Map) properties.caching.shapedQueries
+        shaped?.maxBytes != null ? Long.parseLong(String.valueOf(shaped.maxBytes)) : 16L * 1024 * 1024
+    }
+
+    /**
+     * Returns imports added to every script when default imports are not overridden.
+     *
+     * @return built in default imports.
+     */
+    static String[] builtInImports() {
+        Arrays.copyOf(DEF_IMPORTS, DEF_IMPORTS.length)
+    }
+
     String[] defaultImports() {
         Object defImports = properties.defaultImports
         if (defImports == null) {
@@ -56,6 +56,9 @@ class ConfigurationsV2 extends Configurations {
         def factory = databaseRegistry.getDbFactory(activeDb)
         factory.init(this, dbInfo)
 
+        // repositories may now generate queries for the active database
+        repositoryRegistry.prepareAll()
+
         LOGGER.debug('Default executor factory: ' + executorRegistry.defaultExecutorFactory().name)
     }
 
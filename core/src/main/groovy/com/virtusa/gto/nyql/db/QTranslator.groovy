@@ -190,6 +190,30 @@ trait QTranslator implements QDbBootstrappable {
      */
     abstract List<QResultProxy> ___cteQuery(CTE cte) throws NyException
 
+    /**
+     * Generates a single statement which inserts the record, or updates it when already exists.
+     * Databases not having such a statement may return null, and then the upsert will be
+     * executed as separate select, insert and update queries.
+     *
+     * @param q upsert query model.
+     * @return generated query, or null if not supported for the given model.
+     */
+    QResultProxy ___upsertQuery(UpsertQuery q) throws NyException {
+        null
+    }
+
+    /**
+     * Generates a single statement which inserts the record unless already exists, and
+     * returns the existing or inserted record. Databases not having such a statement
+     * may return null, and then separate select and insert queries will be executed.
+     *
+     * @param q insert or load query model.
+     * @return generated query, or null if not supported for the given model.
+     */
+    QResultProxy ___insertOrLoadQuery(InsertOrQuery q) throws NyException {
+        null
+    }
+
     /**
      * Generates a db table from given set of values, so join clauses can use them.
      *
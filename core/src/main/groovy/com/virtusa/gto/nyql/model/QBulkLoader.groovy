@@ -0,0 +1,27 @@
+package com.virtusa.gto.nyql.model
+
+import java.sql.Connection
+
+/**
+ * A database specific strategy to load records of a bulk insert, instead of
+ * executing the insert query as a jdbc batch.
+ *
+ * Translators attach an instance of this to the generated bulk insert proxy as its raw object.
+ *
+ * @author IWEERARATHNA
+ */
+interface QBulkLoader {
+
+    /**
+     * Loads all given records to the database using the given connection. Records
+     * must be consumed lazily, so that large batches are not materialized in memory.
+     *
+     * @param connection connection to load records. Transaction is handled by the caller.
+     * @param records records to load.
+     * @param sessionVariables session variables, for values not found in a record.
+     * @return number of loaded records.
+     * @throws Exception any exception thrown while loading.
+     */
+    long load(Connection connection, Iterator<Map> records, Map sessionVariables) throws Exception
+
+}
@@ -0,0 +1,37 @@
+package com.virtusa.gto.nyql.model
+
+import groovy.transform.CompileStatic
+
+/**
+ * A script source which has been already compiled ahead of time.
+ * Does not have any script text, hence never goes through the groovy compiler.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class QCompiledSource extends QSource {
+
+    private final Class<? extends NyBaseScript> scriptClass
+
+    QCompiledSource(String theId, Class<? extends NyBaseScript> theScriptClass) {
+        super(theId, null)
+
+        scriptClass = theScriptClass
+    }
+
+    Class<? extends NyBaseScript> getScriptClass() {
+        scriptClass
+    }
+
+    @Override
+    boolean isValid() {
+        scriptClass != null
+    }
+
+    @Override
+    NyBaseScript parseIn(GroovyShell shell) {
+        NyBaseScript script = scriptClass.newInstance()
+        script.setBinding(shell.context)
+        script
+    }
+}
@@ -0,0 +1,79 @@
+package com.virtusa.gto.nyql.model
+
+import com.virtusa.gto.nyql.model.units.AParam
+import groovy.transform.CompileStatic
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Describes a bulk insert query which can insert multiple records using a single
+ * multi-row <code>VALUES (...), (...)</code> statement.
+ *
+ * Translators attach an instance of this to the generated proxy as its raw object,
+ * and executors bind records in blocks of {@link #rowsPerQuery} rows.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class QMultiRowInsert {
+
+    private static final String ROW_SEP = ', '
+
+    /**
+     * Query part before the values rows. Eg: INSERT INTO table (a, b) VALUES
+     */
+    String queryPrefix
+
+    /**
+     * Values part of a single row. Eg: (?, ?)
+     */
+    String rowTemplate
+
+    /**
+     * Parameters appearing before the values rows.
+     */
+    List<AParam> headParameters = []
+
+    /**
+     * Parameters of a single row in order.
+     */
+    List<AParam> rowParameters = []
+
+    /**
+     * Maximum number of rows allowed in a single statement.
+     */
+    int rowsPerQuery = 1
+
+    /**
+     * Whether the statement returns generated keys as its result set, instead of
+     * through generated keys of the jdbc driver.
+     */
+    boolean keysAsResult = false
+
+    private final Map<Integer, String> queries = new ConcurrentHashMap<>()
+
+    /**
+     * Returns the multi-row insert query for the given number of rows.
+     *
+     * @param rows number of rows.
+     * @return insert query.
+     */
+    String query(int rows) {
+        String query = queries.get(rows)
+        if (query == null) {
+            StringBuilder builder = new StringBuilder(queryPrefix.length() + rows * (rowTemplate.length() + 2))
+            builder.append(queryPrefix).append(rowTemplate)
+            for (int i = 1; i < rows; i++) {
+                builder.append(ROW_SEP).append(rowTemplate)
+            }
+            query = builder.toString()
+
+            // only full blocks and a few tail sizes are repeated, so cache them
+            if (queries.size() < 16 || rows == rowsPerQuery) {
+                queries.put(rows, query)
+            }
+        }
+        query
+    }
+
+}
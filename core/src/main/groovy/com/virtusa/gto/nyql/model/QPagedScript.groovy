@@ -9,13 +9,19 @@ import groovy.transform.CompileStatic
 class QPagedScript extends QScript {
 
     int pageSize
+    int prefetchPages
 
     QPagedScript(QScript script, int pageSize) {
+        this(script, pageSize, 0)
+    }
+
+    QPagedScript(QScript script, int pageSize, int prefetchPages) {
         super.id = script.id
         super.proxy = script.proxy
         super.qSession = script.qSession
 
         this.pageSize = pageSize
+        this.prefetchPages = prefetchPages
     }
 
 }
@@ -32,6 +32,15 @@ trait QRepository implements Closeable {
      */
     abstract void reloadScript(String id) throws NyException
 
+    /**
+     * Invoked once after the active database has been initialized, so that
+     * repository can prepare itself before parsing any script.
+     *
+     * @throws NyException any exception thrown while preparing.
+     */
+    void prepare() throws NyException {
+    }
+
     /**
      * Parse the given script represented by given id using the session instance provided.
      *
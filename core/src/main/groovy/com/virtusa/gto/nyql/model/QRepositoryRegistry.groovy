@@ -1,6 +1,7 @@
 package com.virtusa.gto.nyql.model
 
 import com.virtusa.gto.nyql.exceptions.NyConfigurationException
+import com.virtusa.gto.nyql.exceptions.NyException
 import com.virtusa.gto.nyql.utils.Constants
 import com.virtusa.gto.nyql.utils.ReflectUtils
 import groovy.transform.CompileStatic
@@ -34,6 +35,12 @@ final class QRepositoryRegistry {
         }
     }
 
+    void prepareAll() throws NyException {
+        for (QRepository repository : registry.values()) {
+            repository.prepare()
+        }
+    }
+
     void shutdown() {
         registry.values().each {
             it.close()
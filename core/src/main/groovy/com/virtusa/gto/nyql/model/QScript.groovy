@@ -15,8 +15,22 @@ class QScript implements Serializable {
     QResultProxy proxy
     QSession qSession
 
+    /**
+     * Whether the proxy is shared with a cached script, hence must not be freed by this instance.
+     */
+    private boolean sharedProxy = false
+
+    /**
+     * Creates a new script instance for the given session, sharing the proxy of this script.
+     * Shared proxy will not be freed when the spawned instance is freed.
+     *
+     * @param session session instance.
+     * @return new script instance.
+     */
     QScript spawn(QSession session) {
-        new QScript(id: id, qSession: session, proxy: proxy)
+        QScript script = new QScript(id: id, qSession: session, proxy: proxy)
+        script.sharedProxy = true
+        script
     }
 
     QScript spawn() {
@@ -29,7 +43,7 @@ class QScript implements Serializable {
     }
 
     void free() {
-        if (proxy != null) {
+        if (proxy != null && !sharedProxy) {
             proxy.free()
         }
         if (qSession != null) {
@@ -16,6 +16,7 @@ class QScriptList extends QScript {
     QScript spawn(QSession session) {
         QScriptList scriptList = new QScriptList(id: id, qSession: session)
         if (scripts != null) {
+            scriptList.scripts = new ArrayList<>(scripts.size())
             for (QScript script : scripts) {
                 scriptList.scripts.add(script.spawn(session))
             }
@@ -7,6 +7,7 @@ public enum QScriptListType {
 
     UPSERT,
     INSERT_OR_LOAD,
+    INSERT_OR_LOAD_NATIVE,
     DEFAULT
 
 }
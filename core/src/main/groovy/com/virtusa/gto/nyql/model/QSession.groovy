@@ -8,6 +8,10 @@ import org.slf4j.LoggerFactory
 /**
  * A context associated with a given script parsing and execution.
  *
+ * A session is confined to the thread which created it, unless it has been created
+ * in concurrent mode. When session recycling is enabled, freed sessions are kept
+ * per thread and reused by the next session created in the same thread.
+ *
  * @author IWEERARATHNA
  */
 @CompileStatic
@@ -15,6 +19,8 @@ class QSession implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(QSession)
 
+    private static final ThreadLocal<QSession> RECYCLED = new ThreadLocal<>()
+
     /**
      * root script id which is the first (root) script which user has commanded to run.
      */
@@ -23,13 +29,22 @@ class QSession implements AutoCloseable {
     /**
      * Stack of scripts which are running.
      */
-    private Stack<String> scriptStack = [] as Stack
-    private final Object stackLock = new Object()
+    private List<String> scriptStack = new ArrayList<>(4)
 
     /**
      * session variable set given by user.
      */
-    Map<String, Object> sessionVariables = Collections.synchronizedMap(new HashMap<String, Object>())
+    Map<String, Object> sessionVariables
+
+    /**
+     * lock guarding the script stack and depth, only in concurrent mode.
+     */
+    private final Object lock
+
+    /**
+     * whether this session is currently handed out to a caller.
+     */
+    private boolean active
 
     /**
      * active script repository.
@@ -66,40 +81,96 @@ class QSession implements AutoCloseable {
      * current execution depth.
      */
     private int execDepth = 0
-    private final Object depthLock = new Object()
 
-    private QSession() {}
+    /**
+     * number of transactions currently open by scripts of this session.
+     */
+    private int transactionDepth = 0
+
+    private QSession(boolean concurrent) {
+        if (concurrent) {
+            lock = new Object()
+            sessionVariables = Collections.synchronizedMap(new HashMap<String, Object>())
+        } else {
+            lock = null
+            sessionVariables = new HashMap<String, Object>()
+        }
+    }
+
+    /**
+     * Returns true if this session can be safely shared among threads.
+     *
+     * @return concurrent mode status.
+     */
+    boolean isConcurrent() {
+        lock != null
+    }
 
     final void free() {
-        synchronized (depthLock) {
-            if (execDepth > 1) {
-                LOGGER.warn('Cannot free session instance at this moment! Stack: ' + execDepth)
-                return
-            }
+        if (!active) {
+            return
+        }
+        int depth = currentDepth()
+        if (depth > 1) {
+            LOGGER.warn('Cannot free session instance at this moment! Stack: ' + depth)
+            return
         }
+
+        boolean recycle = depth <= 0 && lock == null && configurations != null && configurations.isRecycleSessions()
         sessionVariables.clear()
         scriptStack.clear()
+        rootScriptId = null
         scriptRepo = null
         executorFactory = null
         dbFactory = null
         executor = null
         configurations = null
+        executionListener = null
+        transactionDepth = 0
+        active = false
+        if (recycle) {
+            execDepth = 0
+            RECYCLED.set(this)
+        }
     }
 
     static QSession create(Configurations configurations, String theScriptId) {
+        create(configurations, theScriptId, configurations.isConcurrentSessions())
+    }
+
+    /**
+     * Creates a new session for running the given root script.
+     *
+     * @param configurations configuration instance.
+     * @param theScriptId root script id.
+     * @param concurrent whether the session will be shared among threads.
+     * @return session instance.
+     */
+    static QSession create(Configurations configurations, String theScriptId, boolean concurrent) {
         QSession qSession = createSession(configurations.activeDbFactory,
                 configurations.repositoryRegistry.defaultRepository(),
                 null,
-                configurations.executorRegistry.defaultExecutorFactory())
+                configurations.executorRegistry.defaultExecutorFactory(),
+                concurrent,
+                configurations.isRecycleSessions())
         qSession.rootScriptId = theScriptId
-        qSession.scriptStack.push(theScriptId)
+        qSession.scriptStack.add(theScriptId)
         qSession.configurations = configurations
         qSession
     }
 
     private static QSession createSession(QDbFactory dbFactory, QRepository repository,
-                                  QExecutor executor, QExecutorFactory executorFactory) {
-        QSession session = new QSession()
+                                  QExecutor executor, QExecutorFactory executorFactory,
+                                  boolean concurrent, boolean recycle) {
+        QSession session = null
+        if (recycle && !concurrent) {
+            session = RECYCLED.get()
+            RECYCLED.remove()
+        }
+        if (session == null) {
+            session = new QSession(concurrent)
+        }
+        session.active = true
 
         session.dbFactory = dbFactory
         session.scriptRepo = repository
@@ -110,36 +181,117 @@ class QSession implements AutoCloseable {
         session
     }
 
+    /**
+     * Creates a session to run a script of this session in another thread. The child
+     * shares configurations and factories of this session, but has its own copy of
+     * session variables and script stack, and never uses the executor of this session.
+     *
+     * Must be called from the thread using this session.
+     *
+     * @return child session.
+     */
+    QSession createChild() {
+        QSession child = createSession(dbFactory, scriptRepo, null, executorFactory, false, false)
+        child.rootScriptId = rootScriptId
+        child.configurations = configurations
+        child.executionListener = executionListener
+        if (lock == null) {
+            child.scriptStack.addAll(scriptStack)
+            child.sessionVariables.putAll(sessionVariables)
+        } else {
+            synchronized (lock) {
+                child.scriptStack.addAll(scriptStack)
+            }
+            synchronized (sessionVariables) {
+                child.sessionVariables.putAll(sessionVariables)
+            }
+        }
+        child
+    }
+
+    void intoTransaction() {
+        if (lock == null) {
+            transactionDepth++
+        } else {
+            synchronized (lock) {
+                transactionDepth++
+            }
+        }
+    }
+
+    void outFromTransaction() {
+        if (lock == null) {
+            transactionDepth--
+        } else {
+            synchronized (lock) {
+                transactionDepth--
+            }
+        }
+    }
+
+    /**
+     * Returns true if any script running in this session, including imported
+     * scripts, is currently inside a transaction.
+     *
+     * @return transaction status.
+     */
+    boolean isInTransaction() {
+        if (lock == null) {
+            return transactionDepth > 0
+        }
+        synchronized (lock) {
+            transactionDepth > 0
+        }
+    }
+
     void intoScript(String scriptId) {
-        synchronized (stackLock) {
-            scriptStack.push(scriptId)
+        if (lock == null) {
+            scriptStack.add(scriptId)
+        } else {
+            synchronized (lock) {
+                scriptStack.add(scriptId)
+            }
         }
     }
 
     void outFromScript(String scriptId) {
-        synchronized (stackLock) {
-            scriptStack.pop()
+        if (lock == null) {
+            scriptStack.remove(scriptStack.size() - 1)
+        } else {
+            synchronized (lock) {
+                scriptStack.remove(scriptStack.size() - 1)
+            }
         }
     }
 
     @CompileStatic
     String currentCallingFromScript() {
-        synchronized (stackLock) {
-            int loc = scriptStack.size() - 2;
-            if (loc >= 0) {
-                scriptStack.get(loc)
-            } else {
-                rootScriptId
-            }
+        if (lock == null) {
+            return callingScript()
+        }
+        synchronized (lock) {
+            callingScript()
         }
     }
 
+    private String callingScript() {
+        int loc = scriptStack.size() - 2
+        loc >= 0 ? scriptStack.get(loc) : rootScriptId
+    }
+
     String currentActiveScript() {
-        synchronized (stackLock) {
-            scriptStack.peek()
+        if (lock == null) {
+            return activeScript()
+        }
+        synchronized (lock) {
+            activeScript()
         }
     }
 
+    private String activeScript() {
+        scriptStack.isEmpty() ? null : scriptStack.get(scriptStack.size() - 1)
+    }
+
     QExecutor beingScript() {
         if (executor == null) {
             executor = executorFactory.createReusable()
@@ -177,17 +329,32 @@ class QSession implements AutoCloseable {
     }
 
     private int incrStack() {
-        synchronized (depthLock) {
+        if (lock == null) {
+            return ++execDepth
+        }
+        synchronized (lock) {
             ++execDepth
         }
     }
 
     private int decrStack() {
-        synchronized (depthLock) {
+        if (lock == null) {
+            return --execDepth
+        }
+        synchronized (lock) {
             --execDepth
         }
     }
 
+    private int currentDepth() {
+        if (lock == null) {
+            return execDepth
+        }
+        synchronized (lock) {
+            execDepth
+        }
+    }
+
     @Override
     String toString() {
         'QSession@' + Integer.toHexString(hashCode())
@@ -195,10 +362,15 @@ class QSession implements AutoCloseable {
 
     @Override
     void close() throws Exception {
+        if (configurations != null && configurations.isRecycleSessions()) {
+            free()
+            return
+        }
         scriptStack.clear()
         sessionVariables.clear()
 
         scriptStack = null
         sessionVariables = null
+        active = false
     }
 }
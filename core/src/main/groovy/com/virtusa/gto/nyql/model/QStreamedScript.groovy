@@ -0,0 +1,26 @@
+package com.virtusa.gto.nyql.model
+
+import groovy.transform.CompileStatic
+
+/**
+ * A script whose result rows will be pushed to a consumer as they are read,
+ * instead of being collected into a result.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class QStreamedScript extends QScript {
+
+    RowConsumer consumer
+    int fetchSize
+
+    QStreamedScript(QScript script, RowConsumer rowConsumer, int fetchSize) {
+        super.id = script.id
+        super.proxy = script.proxy
+        super.qSession = script.qSession
+
+        this.consumer = rowConsumer
+        this.fetchSize = fetchSize
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.virtusa.gto.nyql.model
+
+import com.virtusa.gto.nyql.utils.QUtils
+import groovy.transform.CompileStatic
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A pre-split query template of a generated query, having literal query segments
+ * and parameter list placeholder slots in between them.
+ *
+ * Final query for a given set of list sizes can be built in a single pass, and
+ * already expanded query shapes are cached within the template.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class QueryTemplate {
+
+    private static final int MAX_CACHED_SHAPES = 64
+    private static final String EMPTY_LIST = 'NULL'
+    private static final String PLACEHOLDER = '?'
+    private static final String PLACEHOLDER_SEP = ', '
+
+    private final String query
+    private final String[] literals
+    private final String[] slots
+    private final Map<String, String> expandedShapes = new ConcurrentHashMap<>()
+
+    private QueryTemplate(String query, String[] literals, String[] slots) {
+        this.query = query
+        this.literals = literals
+        this.slots = slots
+    }
+
+    /**
+     * Splits the given query into literal segments and list placeholder slots.
+     *
+     * @param query generated query.
+     * @param listParamNames names of all list parameters in the query.
+     * @return compiled query template.
+     */
+    static QueryTemplate compile(String query, Collection<String> listParamNames) {
+        if (query == null || listParamNames == null || listParamNames.isEmpty()) {
+            return new QueryTemplate(query, [query] as String[], new String[0])
+        }
+
+        TreeMap<Integer, String> positions = new TreeMap<>()
+        for (String name : listParamNames) {
+            String padded = QUtils.padParamList(name)
+            int idx = query.indexOf(padded)
+            while (idx >= 0) {
+                positions.put(idx, name)
+                idx = query.indexOf(padded, idx + padded.length())
+            }
+        }
+
+        List<String> literalList = new ArrayList<>(positions.size() + 1)
+        List<String> slotList = new ArrayList<>(positions.size())
+        int start = 0
+        for (Map.Entry<Integer, String> entry : positions.entrySet()) {
+            if (entry.key < start) {
+                // overlapping placeholder
+                continue
+            }
+            literalList.add(query.substring(start, entry.key))
+            slotList.add(entry.value)
+            start = entry.key + QUtils.padParamList(entry.value).length()
+        }
+        literalList.add(query.substring(start))
+        new QueryTemplate(query, literalList as String[], slotList as String[])
+    }
+
+    /**
+     * Returns the bucketed size for a given list size, which is the next power of two.
+     *
+     * @param size actual list size.
+     * @return bucketed size.
+     */
+    static int bucketSize(int size) {
+        if (size <= 1) {
+            return size
+        }
+        int highest = Integer.highestOneBit(size)
+        highest == size ? size : highest << 1
+    }
+
+    /**
+     * Returns parameter names of the placeholder slots in the order they appear in the query.
+     *
+     * @return slot parameter names.
+     */
+    String[] getSlots() {
+        slots
+    }
+
+    boolean hasSlots() {
+        slots.length > 0
+    }
+
+    /**
+     * Builds the final query by expanding each placeholder slot into given number of
+     * jdbc placeholders. A negative size keeps the placeholder as it is.
+     *
+     * @param slotSizes number of placeholders for each slot, in slot order.
+     * @return expanded query.
+     */
+    String expand(int[] slotSizes) {
+        if (slots.length == 0) {
+            return query
+        }
+
+        String shapeKey = Arrays.toString(slotSizes)
+        String expanded = expandedShapes.get(shapeKey)
+        if (expanded != null) {
+            return expanded
+        }
+
+        StringBuilder builder = new StringBuilder(query.length() + slotSizes.length * 8)
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i])
+            int size = slotSizes[i]
+            if (size < 0) {
+                builder.append(QUtils.padParamList(slots[i]))
+            } else if (size == 0) {
+                builder.append(EMPTY_LIST)
+            } else {
+                builder.append(PLACEHOLDER)
+                for (int j = 1; j < size; j++) {
+                    builder.append(PLACEHOLDER_SEP).append(PLACEHOLDER)
+                }
+            }
+        }
+        builder.append(literals[slots.length])
+        expanded = builder.toString()
+
+        if (expandedShapes.size() < MAX_CACHED_SHAPES) {
+            expandedShapes.put(shapeKey, expanded)
+        }
+        expanded
+    }
+
+}
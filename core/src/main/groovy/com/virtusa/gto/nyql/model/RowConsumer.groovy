@@ -0,0 +1,20 @@
+package com.virtusa.gto.nyql.model
+
+/**
+ * Callback which receives rows of a streamed query result one at a time.
+ *
+ * @author IWEERARATHNA
+ */
+@FunctionalInterface
+interface RowConsumer {
+
+    /**
+     * Invoked for each row in the result. The row must not be expected to be
+     * valid once this method returns, unless it has been copied.
+     *
+     * @param row current row having column label as the key.
+     * @throws Exception any exception thrown while consuming. This will stop the stream.
+     */
+    void accept(Map<String, Object> row) throws Exception
+
+}
@@ -37,6 +37,11 @@ class QProfRepository implements QRepository {
         repository.reloadScript(id)
     }
 
+    @Override
+    void prepare() throws NyException {
+        repository.prepare()
+    }
+
     @Override
     QScript parse(String scriptId, QSession session) throws NyException {
         long s = System.currentTimeMillis()
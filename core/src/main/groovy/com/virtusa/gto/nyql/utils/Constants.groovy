@@ -17,6 +17,7 @@ final class Constants {
     static final String DSL_SESSION_WORD = '$SESSION'
 
     static final String DSL_CACHE_VARIABLE_NAME = 'do_cache'
+    static final String DSL_CACHE_SHAPE_VARIABLE_NAME = 'do_cache_shape'
 
     static final String DEFAULT_REPOSITORY_NAME = 'default'
     static final String DEFAULT_REPOSITORY_IMPL = 'default'
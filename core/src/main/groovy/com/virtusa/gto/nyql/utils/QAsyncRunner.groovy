@@ -0,0 +1,159 @@
+package com.virtusa.gto.nyql.utils
+
+import groovy.transform.CompileStatic
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.lang.reflect.Method
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.Semaphore
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Runs scripts asynchronously, while limiting the number of scripts running at once
+ * to the given concurrency. Since each running script holds a database connection,
+ * the limit is expected to be the size of the connection pool, so excess scripts wait
+ * for a permit instead of waiting for a connection inside the pool.
+ *
+ * Virtual threads are used when the running JVM supports them, otherwise a fixed
+ * pool of daemon threads sized to the concurrency limit.
+ *
+ * Scripts of <code>PARALLEL</code> blocks share the same limit through {@link #trySubmit(Callable)},
+ * so that they never claim more connections than the pool has, even when the block itself
+ * runs asynchronously.
+ *
+ * @author iweerarathna
+ */
+@CompileStatic
+class QAsyncRunner implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QAsyncRunner)
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger(0)
+
+    private final ExecutorService executorService
+    private final ExecutorService acquiredService
+    private final Semaphore bulkhead
+
+    QAsyncRunner(int maxConcurrency, boolean useVirtualThreads) {
+        int limit = Math.max(1, maxConcurrency)
+        bulkhead = new Semaphore(limit, true)
+
+        ExecutorService service = useVirtualThreads ? createVirtualThreadExecutor() : null
+        if (service == null) {
+            service = new ThreadPoolExecutor(limit, limit, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    { Runnable runnable ->
+                        Thread thread = new Thread(runnable, 'nyql-async-' + THREAD_ID.incrementAndGet())
+                        thread.setDaemon(true)
+                        thread
+                    } as ThreadFactory)
+            ((ThreadPoolExecutor) service).allowCoreThreadTimeOut(true)
+            // tasks holding a permit must not queue behind tasks waiting for a permit in the fixed pool
+            acquiredService = Executors.newCachedThreadPool({ Runnable runnable ->
+                Thread thread = new Thread(runnable, 'nyql-parallel-' + THREAD_ID.incrementAndGet())
+                thread.setDaemon(true)
+                thread
+            } as ThreadFactory)
+            LOGGER.debug('Asynchronous scripts will run in a pool of {} thread(s).', limit)
+        } else {
+            acquiredService = service
+            LOGGER.debug('Asynchronous scripts will run in virtual threads, at most {} at once.', limit)
+        }
+        executorService = service
+    }
+
+    /**
+     * Runs the given task in the default executor of this runner.
+     *
+     * @param task task to run.
+     * @return future completing with the result of task.
+     */
+    def <T> CompletableFuture<T> submit(Callable<T> task) {
+        submit(task, executorService)
+    }
+
+    /**
+     * Runs the given task in the given executor, still within the concurrency limit of this runner.
+     *
+     * @param task task to run.
+     * @param executor executor to run the task.
+     * @return future completing with the result of task.
+     */
+    def <T> CompletableFuture<T> submit(Callable<T> task, Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>()
+        executor.execute {
+            try {
+                bulkhead.acquire()
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt()
+                future.completeExceptionally(ex)
+                return
+            }
+
+            run(task, future)
+        }
+        future
+    }
+
+    /**
+     * Runs the given task only if it can run immediately within the concurrency limit.
+     * Otherwise returns null without waiting, so the caller may run the task by itself.
+     *
+     * @param task task to run.
+     * @return future completing with the result of task, or null if the limit has been reached.
+     */
+    def <T> CompletableFuture<T> trySubmit(Callable<T> task) {
+        if (!bulkhead.tryAcquire()) {
+            return null
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>()
+        try {
+            acquiredService.execute { run(task, future) }
+        } catch (RejectedExecutionException ex) {
+            bulkhead.release()
+            throw ex
+        }
+        future
+    }
+
+    private <T> void run(Callable<T> task, CompletableFuture<T> future) {
+        try {
+            // cancelled before started
+            if (!future.isDone()) {
+                future.complete(task.call())
+            }
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex)
+        } finally {
+            bulkhead.release()
+        }
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.getMethod('newVirtualThreadPerTaskExecutor')
+            return (ExecutorService) factory.invoke(null)
+        } catch (NoSuchMethodException ignored) {
+            return null
+        } catch (ReflectiveOperationException ex) {
+            LOGGER.warn('Failed to create virtual thread executor! [' + ex.message + ']')
+            return null
+        }
+    }
+
+    @Override
+    void close() throws IOException {
+        executorService.shutdown()
+        acquiredService.shutdown()
+    }
+}
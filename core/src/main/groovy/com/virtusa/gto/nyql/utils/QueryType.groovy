@@ -33,6 +33,11 @@ enum QueryType {
      */
     BULK_DELETE,
 
+    /**
+     * Bulk upsert query.
+     */
+    BULK_UPSERT,
+
     /**
      * Update query.
      */
@@ -13,7 +13,7 @@ import java.sql.Blob
  *
  * @author IWEERARATHNA
  */
-class NyQLResult extends LinkedList<Map<String, Object>> {
+class NyQLResult extends ArrayList<Map<String, Object>> {
 
     private static final int FIRST = 0
     private static final int SECOND = 1
@@ -24,6 +24,14 @@ class NyQLResult extends LinkedList<Map<String, Object>> {
 
     private List<String> _columns = null
 
+    NyQLResult() {
+        super()
+    }
+
+    NyQLResult(int initialCapacity) {
+        super(initialCapacity)
+    }
+
     void setFetchedColumns(Collection<String> columns) {
         _columns = new ArrayList<>(columns)
     }
@@ -87,7 +95,7 @@ class NyQLResult extends LinkedList<Map<String, Object>> {
             }
         }
         throw new NyException(QUtils.generateErrStr('The result list does not contain a return keys in the result!',
-                'May be you are not executing a insert/update statement? (Not supported for bulk insert/update in JDBC yet)',
+                'May be you are not executing a insert or bulk insert statement?',
                 'Or, you are not specifying explicitly to return keys from the statement (using RETURN_KEYS())',
                 'Or, even JDBC driver might not returning it for you. Consider a different strategy instead.'))
     }
@@ -394,6 +402,21 @@ class NyQLResult extends LinkedList<Map<String, Object>> {
         this
     }
 
+    @PackageScope
+    NyQLResult appendCounts(List<Integer> counts) {
+        add(Collections.singletonMap(JDBCConstants.COUNT_KEY, counts))
+        this
+    }
+
+    @PackageScope
+    NyQLResult appendCounts(List<Integer> counts, List keys) {
+        appendCounts(counts)
+        if (QUtils.notNullNorEmpty(keys)) {
+            add(Collections.singletonMap(JDBCConstants.KEYS_KEY, keys))
+        }
+        this
+    }
+
     @PackageScope
     NyQLResult appendCount(int count, List keys) {
         appendCount(count)
@@ -0,0 +1,287 @@
+package com.virtusa.gto.nyql.engine.impl
+
+import groovy.transform.CompileStatic
+
+/**
+ * A compact result row which stores column values in an array and shares the
+ * column index among all rows of the same result set.
+ *
+ * Still behaves as an ordinary map, so columns can be accessed by their labels.
+ * Columns not present in the result set can also be added to a row, and those
+ * will be kept in a separate per-row map.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class NyQLRow extends AbstractMap<String, Object> implements Serializable {
+
+    // an enum constant, so removed columns remain removed after deserialization
+    private static final Object REMOVED = Removed.COLUMN
+
+    private final Schema schema
+    private final Object[] values
+    private Map<String, Object> extras = null
+
+    NyQLRow(Schema rowSchema) {
+        schema = rowSchema
+        values = new Object[rowSchema.columns.length]
+    }
+
+    /**
+     * Sets the value of a column by its index in the schema.
+     *
+     * @param index index of the column in schema.
+     * @param value column value.
+     */
+    void setValueAt(int index, Object value) {
+        values[index] = value
+    }
+
+    /**
+     * Returns the value of a column by its index in the schema.
+     *
+     * @param index index of the column in schema.
+     * @return column value.
+     */
+    Object valueAt(int index) {
+        Object val = values[index]
+        val.is(REMOVED) ? null : val
+    }
+
+    Schema getSchema() {
+        schema
+    }
+
+    @Override
+    Object get(Object key) {
+        Integer idx = schema.indexOf(key)
+        if (idx != null) {
+            Object val = values[idx]
+            return val.is(REMOVED) ? null : val
+        }
+        extras != null ? extras.get(key) : null
+    }
+
+    @Override
+    boolean containsKey(Object key) {
+        Integer idx = schema.indexOf(key)
+        if (idx != null) {
+            return !values[idx].is(REMOVED)
+        }
+        extras != null && extras.containsKey(key)
+    }
+
+    @Override
+    Object put(String key, Object value) {
+        Integer idx = schema.indexOf(key)
+        if (idx != null) {
+            Object prev = values[idx]
+            values[idx] = value
+            return prev.is(REMOVED) ? null : prev
+        }
+        if (extras == null) {
+            extras = new LinkedHashMap<>()
+        }
+        extras.put(key, value)
+    }
+
+    @Override
+    Object remove(Object key) {
+        Integer idx = schema.indexOf(key)
+        if (idx != null) {
+            Object prev = values[idx]
+            values[idx] = REMOVED
+            return prev.is(REMOVED) ? null : prev
+        }
+        extras != null ? extras.remove(key) : null
+    }
+
+    @Override
+    int size() {
+        int count = 0
+        for (Object val : values) {
+            if (!val.is(REMOVED)) {
+                count++
+            }
+        }
+        count + (extras != null ? extras.size() : 0)
+    }
+
+    @Override
+    Set<Map.Entry<String, Object>> entrySet() {
+        new EntrySet()
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        Iterator<Map.Entry<String, Object>> iterator() {
+            new EntryIterator()
+        }
+
+        @Override
+        int size() {
+            NyQLRow.this.size()
+        }
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private int next = 0
+        private int last = -1
+        private Iterator<Map.Entry<String, Object>> extraIterator = null
+
+        EntryIterator() {
+            advance()
+        }
+
+        private void advance() {
+            while (next < values.length && values[next].is(REMOVED)) {
+                next++
+            }
+        }
+
+        @Override
+        boolean hasNext() {
+            if (next < values.length) {
+                return true
+            }
+            if (extraIterator == null && extras != null) {
+                extraIterator = extras.entrySet().iterator()
+            }
+            extraIterator != null && extraIterator.hasNext()
+        }
+
+        @Override
+        Map.Entry<String, Object> next() {
+            if (next < values.length) {
+                last = next++
+                advance()
+                return new RowEntry(last)
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException()
+            }
+            last = -1
+            extraIterator.next()
+        }
+
+        @Override
+        void remove() {
+            if (last >= 0) {
+                values[last] = REMOVED
+                last = -1
+            } else if (extraIterator != null) {
+                extraIterator.remove()
+            } else {
+                throw new IllegalStateException()
+            }
+        }
+    }
+
+    private class RowEntry implements Map.Entry<String, Object> {
+
+        private final int index
+
+        RowEntry(int idx) {
+            index = idx
+        }
+
+        @Override
+        String getKey() {
+            schema.columns[index]
+        }
+
+        @Override
+        Object getValue() {
+            values[index]
+        }
+
+        @Override
+        Object setValue(Object value) {
+            Object prev = values[index]
+            values[index] = value
+            prev
+        }
+
+        @Override
+        boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false
+            }
+            Map.Entry other = (Map.Entry) o
+            Objects.equals(key, other.key) && Objects.equals(value, other.value)
+        }
+
+        @Override
+        int hashCode() {
+            Objects.hashCode(key) ^ Objects.hashCode(value)
+        }
+
+        @Override
+        String toString() {
+            key + '=' + value
+        }
+    }
+
+    private static enum Removed {
+        COLUMN
+    }
+
+    /**
+     * Immutable column index shared among all rows of a single result set.
+     */
+    @CompileStatic
+    static class Schema implements Serializable {
+
+        private final String[] columns
+        private final Map<String, Integer> indexes
+        private final int[] slots
+
+        /**
+         * Creates a schema from column labels in result set order. When the same
+         * label appears more than once, all of them map to a single column.
+         *
+         * @param labels column labels in result set order.
+         */
+        Schema(List<String> labels) {
+            Map<String, Integer> idx = new HashMap<>()
+            List<String> unique = new ArrayList<>(labels.size())
+            slots = new int[labels.size()]
+            for (int i = 0; i < labels.size(); i++) {
+                String label = labels.get(i)
+                Integer pos = idx.get(label)
+                if (pos == null) {
+                    pos = unique.size()
+                    unique.add(label)
+                    idx.put(label, pos)
+                }
+                slots[i] = pos
+            }
+            columns = unique as String[]
+            indexes = Collections.unmodifiableMap(idx)
+        }
+
+        /**
+         * Returns the row index for the given result set column index (0-based).
+         *
+         * @param columnIndex column index in the result set.
+         * @return index in the row.
+         */
+        int slotOf(int columnIndex) {
+            slots[columnIndex]
+        }
+
+        Integer indexOf(Object column) {
+            indexes.get(column)
+        }
+
+        String[] getColumns() {
+            columns
+        }
+
+        List<String> getColumnList() {
+            Collections.unmodifiableList(Arrays.asList(columns))
+        }
+    }
+}
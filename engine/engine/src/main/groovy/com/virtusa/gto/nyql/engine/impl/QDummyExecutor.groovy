@@ -55,9 +55,14 @@ class QDummyExecutor implements QExecutor {
             }
         } else if (script.proxy.queryType == QueryType.BULK_INSERT
                 || script.proxy.queryType == QueryType.BULK_UPDATE
-                || script.proxy.queryType == QueryType.BULK_DELETE) {
-            int[] res = [1, 0, 1]
-            new NyQLResult().appendCounts(res)
+                || script.proxy.queryType == QueryType.BULK_DELETE
+                || script.proxy.queryType == QueryType.BULK_UPSERT) {
+            if (script.proxy.returnType == QReturnType.KEYS) {
+                new NyQLResult().appendCounts([1, 0, 1], [10, 11])
+            } else {
+                int[] res = [1, 0, 1]
+                new NyQLResult().appendCounts(res)
+            }
         } else {
             LOGGER.debug('  Returning list of maps')
             [[id: '1', title: 'item-1', 'aboolCol': true, price: 2.34, year: 2016],
@@ -76,6 +81,10 @@ class QDummyExecutor implements QExecutor {
         }
 
         if (scriptList.type == QScriptListType.UPSERT) {
+            if (scriptList.scripts.size() == 1) {
+                LOGGER.debug("Executing UPSERT as a single statement:")
+                return execute(scriptList.scripts[0])
+            }
             if (scriptList.scripts.size() < 3) {
                 throw new NyException('Not defined either select, insert, or update query in UPSERT query!')
             }
@@ -111,6 +120,9 @@ class QDummyExecutor implements QExecutor {
                 }
             }
 
+        } else if (scriptList.type == QScriptListType.INSERT_OR_LOAD_NATIVE) {
+            LOGGER.debug("Executing INSERT Or LOAD query as a single statement:")
+            return execute(scriptList.scripts[0])
         } else if (scriptList.type == QScriptListType.INSERT_OR_LOAD) {
             LOGGER.debug("Executing INSERT Or LOAD query...")
             LOGGER.debug("Executing 1st query to select existing records...")
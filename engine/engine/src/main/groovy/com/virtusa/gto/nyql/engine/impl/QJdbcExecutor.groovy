@@ -9,11 +9,11 @@ import com.virtusa.gto.nyql.engine.transform.IterableJdbcTransformer
 import com.virtusa.gto.nyql.engine.transform.JdbcCallResultTransformer
 import com.virtusa.gto.nyql.engine.transform.JdbcCallTransformInput
 import com.virtusa.gto.nyql.engine.transform.JdbcResultTransformer
+import com.virtusa.gto.nyql.engine.transform.StreamingJdbcTransformer
 import com.virtusa.gto.nyql.exceptions.NyException
 import com.virtusa.gto.nyql.model.*
 import com.virtusa.gto.nyql.model.units.*
 import com.virtusa.gto.nyql.utils.QReturnType
-import com.virtusa.gto.nyql.utils.QUtils
 import com.virtusa.gto.nyql.utils.QueryType
 import groovy.transform.CompileStatic
 import org.slf4j.Logger
@@ -29,7 +29,7 @@ import java.sql.ResultSet
 import java.sql.SQLException
 import java.sql.Savepoint
 import java.sql.Statement
-import java.util.stream.Collectors
+import java.util.stream.BaseStream
 
 /**
  * @author IWEERARATHNA
@@ -42,6 +42,8 @@ class QJdbcExecutor implements QExecutor {
     private static final JdbcCallResultTransformer callResultTransformer = new JdbcCallResultTransformer()
 
     private final QJdbcPoolFetcher poolFetcher
+    private final QJdbcStatementCache statementCache
+    private final QJdbcExecutorOptions executorOptions
     private Connection connection
     private final boolean returnRaw
     private boolean reusable
@@ -56,6 +58,8 @@ class QJdbcExecutor implements QExecutor {
      */
     QJdbcExecutor(Connection yourConnection, Configurations configurations) {
         poolFetcher = null
+        executorOptions = QJdbcExecutorOptions.DEFAULT
+        statementCache = null
         connection = yourConnection
         reusable = true
         returnRaw = false
@@ -68,7 +72,22 @@ class QJdbcExecutor implements QExecutor {
     }
 
     QJdbcExecutor(QJdbcPoolFetcher jdbcPoolFetcher, boolean canReusable, Configurations configurations) {
+        this(jdbcPoolFetcher, canReusable, configurations, QJdbcExecutorOptions.DEFAULT)
+    }
+
+    /**
+     * Creates a pooled executor with the given execution options.
+     *
+     * @param jdbcPoolFetcher pool to fetch connections from.
+     * @param canReusable whether connection should be kept open after an execution.
+     * @param configurations nyql configurations.
+     * @param options execution options shared among executors.
+     */
+    QJdbcExecutor(QJdbcPoolFetcher jdbcPoolFetcher, boolean canReusable, Configurations configurations,
+                  QJdbcExecutorOptions options) {
         poolFetcher = jdbcPoolFetcher
+        executorOptions = options
+        statementCache = options.statementCache
         reusable = canReusable
         returnRaw = false
         nyqlConfigs = configurations
@@ -93,6 +112,8 @@ class QJdbcExecutor implements QExecutor {
         }
 
         boolean isPaged = script instanceof QPagedScript
+        boolean isStreamed = script instanceof QStreamedScript
+        boolean cacheable = statementCache != null && !isPaged && !isStreamed && !returnRaw
         PreparedStatement statement = null
         try {
             JdbcHelperUtils.logScript(script, logLevel)
@@ -102,13 +123,18 @@ class QJdbcExecutor implements QExecutor {
             }
             if (script.proxy.queryType == QueryType.BULK_INSERT
                     || script.proxy.queryType == QueryType.BULK_UPDATE
-                    || script.proxy.queryType == QueryType.BULK_DELETE) {
+                    || script.proxy.queryType == QueryType.BULK_DELETE
+                    || script.proxy.queryType == QueryType.BULK_UPSERT) {
                 return batchExecute(script)
             }
 
+            if (isStreamed && script.proxy.queryType != QueryType.SELECT) {
+                throw new NyScriptExecutionException('Only SELECT queries can be streamed! Given ' + script.proxy.queryType + ' query.')
+            }
+
             Map<String, Object> data = script.qSession.sessionVariables
             List<AParam> parameters = script.proxy.orderedParameters
-            statement = prepareStatement(script, parameters, data)
+            statement = prepareStatement(script, parameters, data, cacheable)
             onBeforeInvoke(script, statement)
 
             if (script.proxy.queryType == QueryType.SELECT) {
@@ -120,6 +146,14 @@ class QJdbcExecutor implements QExecutor {
                     statement.setFetchSize(((QPagedScript)script).pageSize)
                     return new IterableJdbcTransformer(this, (QPagedScript)script).apply(statement.executeQuery())
 
+                } else if (isStreamed) {
+                    QStreamedScript streamedScript = (QStreamedScript)script
+                    int fetchSize = streamedScript.fetchSize > 0 ? streamedScript.fetchSize : executorOptions.fetchSize
+                    if (fetchSize != 0) {
+                        statement.setFetchSize(fetchSize)
+                    }
+                    return new StreamingJdbcTransformer(streamedScript.consumer).apply(statement.executeQuery())
+
                 } else {
                     //LOGGER.trace('Transforming result set using {}', transformer.class.name)
                     return transformer.apply(statement.executeQuery())
@@ -128,18 +162,7 @@ class QJdbcExecutor implements QExecutor {
                 int count = statement.executeUpdate()
                 List keys = [] as LinkedList
                 if (count > 0 && isReturnKeys(script)) {
-                    ResultSet genKeys
-                    try {
-                        genKeys = statement.getGeneratedKeys()
-                        while (genKeys.next()) {
-                            Object val = genKeys.getObject(1)
-                            keys.add(val)
-                        }
-                    } finally {
-                        if (genKeys != null) {
-                            genKeys.close()
-                        }
-                    }
+                    readKeys(statement.getGeneratedKeys(), keys)
                 }
                 return toMap(count, keys)
 
@@ -152,9 +175,7 @@ class QJdbcExecutor implements QExecutor {
             if (!isPaged) {
                 onCloseInvoke(script, statement)
 
-                if (statement != null) {
-                    statement.close()
-                }
+                releaseStatement(statement, cacheable)
                 closeConnection()
             }
         }
@@ -164,56 +185,322 @@ class QJdbcExecutor implements QExecutor {
      * Executes the script as a batch and returns number of updated/inserted count as
      * the result set.
      *
+     * Records will be sent to the database in chunks of configured batch size,
+     * and optionally committed after every configured number of chunks.
+     * If the script returns keys, generated keys are collected after every chunk.
+     * On failure, records after the last commit are rolled back. Invalid batch data
+     * found before executing the first chunk fails as it is.
+     *
      * @param script script to be executed.
-     * @return total number of updated rows.
+     * @return total number of updated rows, and generated keys if requested.
      * @throws Exception any exception thrown while executing batch.
      */
     private def batchExecute(QScript script) throws Exception {
+        if (script.proxy.queryType == QueryType.BULK_INSERT && script.proxy.rawObject instanceof QMultiRowInsert) {
+            return multiRowExecute(script, (QMultiRowInsert) script.proxy.rawObject)
+        } else if (script.proxy.queryType == QueryType.BULK_INSERT && script.proxy.rawObject instanceof QBulkLoader) {
+            return bulkLoad(script, (QBulkLoader) script.proxy.rawObject)
+        }
+
         LOGGER.debug('Executing as batch...')
         PreparedStatement statement = null
         boolean prevCommitStatus = true
+        boolean cacheable = statementCache != null
+        boolean returnKeys = isReturnKeys(script)
+        Object batchData = null
+        boolean started = false
+        int processed = 0
+        int committed = 0
         try {
-            statement = getConnection().prepareStatement(script.proxy.query)
+            statement = createStatement(script.proxy.query, returnKeys, cacheable)
             prevCommitStatus = connection.getAutoCommit()
             connection.setAutoCommit(false)
 
             List<AParam> parameters = script.proxy.orderedParameters
             Map sVariables = script.qSession.sessionVariables
-            Object batchData = sVariables[JDBCConstants.BATCH_ALT_KEY]
-            if (batchData == null) {
-                LOGGER.warn('[DEPRECATED] Use the key "__batch__" to provide data for all batch operations ' +
-                        'instead of "batch".')
-                batchData = sVariables[JDBCConstants.BATCH_KEY]
+            batchData = findBatchData(sVariables)
+            Iterator<Map> records = toRecordIterator(batchData)
+            int batchSize = executorOptions.batchSize
+            int commitInterval = executorOptions.batchCommitInterval
+            List<Integer> counts = new ArrayList<>()
+            List keys = returnKeys ? new ArrayList<>() : null
+            int pending = 0
+            int chunks = 0
+            while (records.hasNext()) {
+                assignParameters(statement, parameters, records.next(), sVariables)
+                statement.addBatch()
+                pending++
+                processed++
+
+                if (batchSize > 0 && pending >= batchSize) {
+                    started = true
+                    addCounts(counts, statement.executeBatch())
+                    if (returnKeys) {
+                        readKeys(statement.getGeneratedKeys(), keys)
+                    }
+                    pending = 0
+                    chunks++
+                    if (commitInterval > 0 && chunks % commitInterval == 0) {
+                        LOGGER.debug('Committing after {} batch executions.', chunks)
+                        connection.commit()
+                        committed = processed
+                    }
+                }
             }
 
-            if (batchData == null) {
-                throw new NyScriptExecutionException("No batch data has been specified through session variables 'batch'!")
-            } else if (!(batchData instanceof List)) {
-                throw new NyScriptExecutionException('Batch data expected to be a list of hashmaps!')
+            if (pending > 0) {
+                started = true
+                addCounts(counts, statement.executeBatch())
+                if (returnKeys) {
+                    readKeys(statement.getGeneratedKeys(), keys)
+                }
             }
+            connection.commit()
+            return new NyQLResult().appendCounts(counts, keys)
 
-            List<Map> records = batchData as List<Map>
-            for (Map record : records) {
-                assignParameters(statement, parameters, record, sVariables)
-                statement.addBatch()
+        } catch (Exception ex) {
+            throw started ? bulkFailure(ex, prevCommitStatus, committed) : ex
+        } finally {
+            if (batchData instanceof BaseStream) {
+                ((BaseStream) batchData).close()
+            }
+
+            if (prevCommitStatus) {
+                connection.setAutoCommit(true)
+            }
+
+            releaseStatement(statement, cacheable)
+            closeConnection()
+        }
+    }
+
+    /**
+     * Executes a bulk insert using multi-row insert statements. Records are bound in blocks
+     * of maximum rows allowed per statement, and each block is executed as a single statement.
+     * If the script returns keys, generated keys are collected after every statement.
+     *
+     * @param script script to be executed.
+     * @param multiRow multi-row insert query descriptor.
+     * @return number of inserted rows per each executed statement, and generated keys if requested.
+     * @throws Exception any exception thrown while executing inserts.
+     */
+    private def multiRowExecute(QScript script, QMultiRowInsert multiRow) throws Exception {
+        LOGGER.debug('Executing as multi-row insert of {} rows per statement...', multiRow.rowsPerQuery)
+        boolean prevCommitStatus = true
+        Object batchData = null
+        boolean started = false
+        int processed = 0
+        int committed = 0
+        try {
+            prevCommitStatus = getConnection().getAutoCommit()
+            connection.setAutoCommit(false)
+
+            Map sVariables = script.qSession.sessionVariables
+            batchData = findBatchData(sVariables)
+            Iterator<Map> records = toRecordIterator(batchData)
+            int commitInterval = executorOptions.batchCommitInterval
+            List<Integer> counts = new ArrayList<>()
+            List keys = isReturnKeys(script) ? new ArrayList<>() : null
+            List<Map> block = new ArrayList<>()
+            int blocks = 0
+            while (records.hasNext()) {
+                block.add(records.next())
+
+                if (block.size() >= multiRow.rowsPerQuery) {
+                    started = true
+                    counts.add(executeBlock(multiRow, block, sVariables, keys))
+                    processed += block.size()
+                    block.clear()
+                    blocks++
+                    if (commitInterval > 0 && blocks % commitInterval == 0) {
+                        LOGGER.debug('Committing after {} multi-row inserts.', blocks)
+                        connection.commit()
+                        committed = processed
+                    }
+                }
             }
 
-            int[] counts = statement.executeBatch()
+            if (!block.isEmpty()) {
+                started = true
+                counts.add(executeBlock(multiRow, block, sVariables, keys))
+            }
             connection.commit()
-            return new NyQLResult().appendCounts(counts)
+            return new NyQLResult().appendCounts(counts, keys)
 
+        } catch (Exception ex) {
+            throw started ? bulkFailure(ex, prevCommitStatus, committed) : ex
         } finally {
+            if (batchData instanceof BaseStream) {
+                ((BaseStream) batchData).close()
+            }
+
             if (prevCommitStatus) {
                 connection.setAutoCommit(true)
             }
+            closeConnection()
+        }
+    }
 
-            if (statement != null) {
-                statement.close()
+    /**
+     * Executes a bulk insert using the database specific loader given by the translator.
+     * All records are loaded within a single transaction.
+     *
+     * @param script script to be executed.
+     * @param loader database specific bulk loader.
+     * @return number of loaded rows as a single count, or {@link Statement#SUCCESS_NO_INFO}
+     *         if the count exceeds integer range.
+     * @throws Exception any exception thrown while loading records.
+     */
+    private def bulkLoad(QScript script, QBulkLoader loader) throws Exception {
+        LOGGER.debug('Executing using bulk loader {}...', loader.class.simpleName)
+        boolean prevCommitStatus = true
+        Object batchData = null
+        boolean started = false
+        try {
+            prevCommitStatus = getConnection().getAutoCommit()
+            connection.setAutoCommit(false)
+
+            Map sVariables = script.qSession.sessionVariables
+            batchData = findBatchData(sVariables)
+            Iterator<Map> records = toRecordIterator(batchData)
+            started = true
+            long count = loader.load(connection, records, sVariables)
+            connection.commit()
+            if (count > Integer.MAX_VALUE) {
+                LOGGER.warn('Loaded row count {} does not fit into an affected count, hence reported as unknown.', count)
+                return new NyQLResult().appendCounts([Statement.SUCCESS_NO_INFO])
+            }
+            return new NyQLResult().appendCounts([(int) count])
+
+        } catch (Exception ex) {
+            throw started ? bulkFailure(ex, prevCommitStatus, 0) : ex
+        } finally {
+            if (batchData instanceof BaseStream) {
+                ((BaseStream) batchData).close()
+            }
+
+            if (prevCommitStatus) {
+                connection.setAutoCommit(true)
             }
             closeConnection()
         }
     }
 
+    /**
+     * Rolls back records of a failed bulk execution which were not committed yet, unless
+     * the execution is part of an outer transaction, which should decide it by itself.
+     *
+     * @param ex failure of the bulk execution.
+     * @param ownTransaction whether the transaction was started by the bulk execution.
+     * @param committed number of records already committed by the commit interval.
+     * @return exception to be thrown reporting committed number of records.
+     */
+    @CompileStatic
+    private NyScriptExecutionException bulkFailure(Exception ex, boolean ownTransaction, int committed) {
+        if (ownTransaction && connection != null) {
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback()
+                }
+            } catch (SQLException rex) {
+                LOGGER.error('Failed to rollback the failed bulk execution!', rex)
+                ex.addSuppressed(rex)
+            }
+        }
+        new NyScriptExecutionException('Bulk execution failed after committing ' + committed + ' records! ' +
+                '[' + ex.message + ']', ex)
+    }
+
+    @CompileStatic
+    private int executeBlock(QMultiRowInsert multiRow, List<Map> block, Map sVariables, List keys) {
+        boolean cacheable = statementCache != null
+        boolean returnKeys = keys != null
+        PreparedStatement statement = createStatement(multiRow.query(block.size()),
+                returnKeys && !multiRow.keysAsResult, cacheable)
+        try {
+            int cp = assignParameters(statement, multiRow.headParameters, sVariables, sVariables, 1)
+            for (Map record : block) {
+                cp = assignParameters(statement, multiRow.rowParameters, record, sVariables, cp)
+            }
+
+            if (returnKeys && multiRow.keysAsResult) {
+                int before = keys.size()
+                readKeys(statement.executeQuery(), keys)
+                return keys.size() - before
+            }
+            int count = statement.executeUpdate()
+            if (returnKeys) {
+                readKeys(statement.getGeneratedKeys(), keys)
+            }
+            count
+        } finally {
+            releaseStatement(statement, cacheable)
+        }
+    }
+
+    /**
+     * Returns batch data given through session variables.
+     *
+     * @param sVariables session variables.
+     * @return batch data.
+     */
+    private static Object findBatchData(Map sVariables) {
+        Object batchData = sVariables[JDBCConstants.BATCH_ALT_KEY]
+        if (batchData == null) {
+            LOGGER.warn('[DEPRECATED] Use the key "__batch__" to provide data for all batch operations ' +
+                    'instead of "batch".')
+            batchData = sVariables[JDBCConstants.BATCH_KEY]
+        }
+
+        if (batchData == null) {
+            throw new NyScriptExecutionException("No batch data has been specified through session variables 'batch'!")
+        }
+        batchData
+    }
+
+    /**
+     * Returns an iterator of records for the given batch data. Batch data can be
+     * a list, iterable, iterator, or a stream of maps.
+     *
+     * @param batchData batch data given in session.
+     * @return record iterator.
+     */
+    @CompileStatic
+    private static Iterator<Map> toRecordIterator(Object batchData) {
+        if (batchData instanceof Iterable) {
+            return ((Iterable<Map>) batchData).iterator()
+        } else if (batchData instanceof Iterator) {
+            return (Iterator<Map>) batchData
+        } else if (batchData instanceof BaseStream) {
+            return ((BaseStream<Map, ?>) batchData).iterator()
+        }
+        throw new NyScriptExecutionException('Batch data expected to be a list, iterator or stream of hashmaps!')
+    }
+
+    /**
+     * Reads first column of all rows in the given key result set, and closes it.
+     *
+     * @param genKeys result set containing generated keys.
+     * @param keys list to add keys.
+     */
+    @CompileStatic
+    private static void readKeys(ResultSet genKeys, List keys) {
+        try {
+            while (genKeys.next()) {
+                keys.add(genKeys.getObject(1))
+            }
+        } finally {
+            genKeys.close()
+        }
+    }
+
+    @CompileStatic
+    private static void addCounts(List<Integer> counts, int[] chunkCounts) {
+        for (int count : chunkCounts) {
+            counts.add(count)
+        }
+    }
+
     /**
      * Call a stored function in the database and returns the result.
      *
@@ -279,6 +566,7 @@ class QJdbcExecutor implements QExecutor {
 
     /**
      * Closes the connection if reusable is not specified.
+     * Cached statements are kept, so that the next checkout of the same connection can reuse them.
      */
     @CompileStatic
     void closeConnection() {
@@ -289,8 +577,9 @@ class QJdbcExecutor implements QExecutor {
     }
 
     @CompileStatic
-    private static void assignParameters(PreparedStatement statement, List<AParam> parameters, Map data, Map session) {
-        int cp = 1
+    private static int assignParameters(PreparedStatement statement, List<AParam> parameters, Map data, Map session,
+                                        int startIndex = 1) {
+        int cp = startIndex
         for (int i = 0; i < parameters.size(); i++) {
             AParam param = parameters[i]
             Object itemValue = deriveValue(data, param.__name, false)
@@ -302,11 +591,54 @@ class QJdbcExecutor implements QExecutor {
 
             statement.setObject(cp++, itemValue)
         }
+        cp
+    }
+
+    /**
+     * Prepares a new statement for the given query, or returns an already prepared
+     * statement from the statement cache when cacheable.
+     *
+     * @param query final query to prepare.
+     * @param returnKeys whether generated keys should be returned.
+     * @param cacheable whether the statement can be taken from statement cache.
+     * @return prepared statement.
+     */
+    @CompileStatic
+    private PreparedStatement createStatement(String query, boolean returnKeys, boolean cacheable) {
+        if (cacheable) {
+            return statementCache.prepare(getConnection(), query, returnKeys)
+        }
+
+        if (returnKeys) {
+            getConnection().prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+        } else {
+            getConnection().prepareStatement(query)
+        }
+    }
+
+    /**
+     * Releases the statement back to the statement cache if it was taken from the cache,
+     * otherwise the statement will be closed.
+     *
+     * @param statement statement to release.
+     * @param cacheable whether the statement was taken from statement cache.
+     */
+    @CompileStatic
+    private void releaseStatement(PreparedStatement statement, boolean cacheable) {
+        if (statement == null) {
+            return
+        }
+
+        if (cacheable) {
+            statementCache.release(connection, statement)
+        } else {
+            statement.close()
+        }
     }
 
-    private PreparedStatement prepareStatement(QScript script, List<AParam> paramList, Map data) {
+    private PreparedStatement prepareStatement(QScript script, List<AParam> paramList, Map data, boolean cacheable) {
         List orderedValues = [] as LinkedList
-        String query = script.proxy.query
+        Map<String, Integer> listSizes = null
         int cp = 1
 
         for (AParam param : paramList) {
@@ -316,14 +648,24 @@ class QJdbcExecutor implements QExecutor {
             if (param instanceof ParamList) {
                 if (itemValue instanceof List) {
                     List itemList = (List)itemValue
-                    itemList.each { orderedValues.add(it) }
-                    String pStr = itemList.stream().map { return '?' }.collect(Collectors.joining(', '))
+                    int size = itemList.size()
+                    orderedValues.addAll(itemList)
                     if (itemList.isEmpty()) {
                         LOGGER.warn('Empty parameter list received!')
-                        pStr = 'NULL'
+                    } else if (executorOptions.paramListPadding) {
+                        // pad with the last value, so the query shape stays same for similar sized lists
+                        Object lastValue = itemList.get(size - 1)
+                        size = QueryTemplate.bucketSize(size)
+                        for (int i = itemList.size(); i < size; i++) {
+                            orderedValues.add(lastValue)
+                        }
                     }
-                    query = query.replaceAll(QUtils.padParamList(param.__name), pStr)
-                    cp += itemList.size()
+
+                    if (listSizes == null) {
+                        listSizes = [:]
+                    }
+                    listSizes.put(param.__name, size)
+                    cp += size
 
                 } else {
                     throw new NyScriptExecutionException("Parameter value of '$param.__name' expected to be a list but given " + itemValue.class.simpleName + '!')
@@ -339,12 +681,8 @@ class QJdbcExecutor implements QExecutor {
             }
         }
 
-        PreparedStatement statement
-        if (isReturnKeys(script)) {
-            statement = getConnection().prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
-        } else {
-            statement = getConnection().prepareStatement(query)
-        }
+        String query = listSizes == null ? script.proxy.query : expandQuery(script.proxy.queryTemplate, listSizes)
+        PreparedStatement statement = createStatement(query, isReturnKeys(script), cacheable)
         cp = 1
         for (Object pValue : orderedValues) {
             statement.setObject(cp++, pValue)
@@ -352,6 +690,17 @@ class QJdbcExecutor implements QExecutor {
         statement
     }
 
+    @CompileStatic
+    private static String expandQuery(QueryTemplate template, Map<String, Integer> listSizes) {
+        String[] slots = template.slots
+        int[] sizes = new int[slots.length]
+        for (int i = 0; i < slots.length; i++) {
+            Integer size = listSizes.get(slots[i])
+            sizes[i] = size == null ? -1 : size
+        }
+        template.expand(sizes)
+    }
+
     @CompileStatic
     private static Object convertValue(Object value, AParam param, QScript qScript) {
         if (param.__shouldValueConvert()) {
@@ -375,7 +724,7 @@ class QJdbcExecutor implements QExecutor {
 
     @CompileStatic
     private static boolean isReturnKeys(QScript script) {
-        script.proxy != null && script.proxy.queryType == QueryType.INSERT &&
+        script.proxy != null && (script.proxy.queryType == QueryType.INSERT || script.proxy.queryType == QueryType.BULK_INSERT) &&
                 script.proxy.returnType == QReturnType.KEYS
     }
 
@@ -419,6 +768,8 @@ class QJdbcExecutor implements QExecutor {
                 return handleUpsertExecution(scriptList)
             } else if (scriptList.type == QScriptListType.INSERT_OR_LOAD) {
                 return handleInsertOrExecution(scriptList)
+            } else if (scriptList.type == QScriptListType.INSERT_OR_LOAD_NATIVE) {
+                return handleNativeInsertOrExecution(scriptList)
             } else {
                 List results = []
                 for (QScript qScript : scriptList.scripts) {
@@ -458,8 +809,24 @@ class QJdbcExecutor implements QExecutor {
         }
     }
 
+    @CompileStatic
+    private handleNativeInsertOrExecution(QScriptList scriptList) throws Exception {
+        NyQLResult result = execute(scriptList.scripts[0]) as NyQLResult
+        if (result.isEmpty() && scriptList.scripts.size() > 1) {
+            // record has been inserted concurrently, but not visible to the statement
+            result = execute(scriptList.scripts[1]) as NyQLResult
+        }
+        result
+    }
+
     @CompileStatic
     private handleUpsertExecution(QScriptList scriptList) throws Exception {
+        if (scriptList.scripts.size() == 1) {
+            // a single native statement, which is atomic by itself
+            def result = execute(scriptList.scripts[0])
+            UpsertQuery upsertQuery = (UpsertQuery) scriptList.baseQuery
+            return upsertQuery.returningType == UpsertQuery.ReturnType.NONE ? new NyQLResult() : result
+        }
         if (scriptList.scripts.size() < 3) {
             throw new NyException('Not defined either select, insert, or update query in UPSERT query!')
         }
@@ -21,6 +21,7 @@ class QJdbcExecutorFactory implements QExecutorFactory {
     private static final Logger LOGGER = LoggerFactory.getLogger(QJdbcExecutorFactory)
 
     private QJdbcPool jdbcPool
+    private QJdbcExecutorOptions executorOptions = QJdbcExecutorOptions.DEFAULT
     private Configurations nyqlConfigs
 
     @Override
@@ -40,6 +41,7 @@ class QJdbcExecutorFactory implements QExecutorFactory {
                 throw new NyConfigurationException("JDBC pooling implementation has not been specified under key 'impl'!")
             }
             jdbcPool.init(options, configurations)
+            executorOptions = QJdbcExecutorOptions.fromConfig(options)
             return getDatabaseInfo()
         } else {
             throw new NyConfigurationException(this.class.getName() + ' is for producing pooled jdbc executors. ' +
@@ -79,16 +81,17 @@ class QJdbcExecutorFactory implements QExecutorFactory {
 
     @Override
     QExecutor create() {
-        new QJdbcExecutor(jdbcPool, nyqlConfigs)
+        new QJdbcExecutor(jdbcPool, false, nyqlConfigs, executorOptions)
     }
 
     @Override
     QExecutor createReusable() {
-        new QJdbcExecutor(jdbcPool, true, nyqlConfigs)
+        new QJdbcExecutor(jdbcPool, true, nyqlConfigs, executorOptions)
     }
 
     @Override
     void shutdown() {
+        executorOptions.close()
         if (jdbcPool != null) {
             jdbcPool.shutdown()
         }
@@ -102,4 +105,13 @@ class QJdbcExecutorFactory implements QExecutorFactory {
     QJdbcPool getJdbcPool() {
         jdbcPool
     }
+
+    /**
+     * Returns the execution options shared among executors of this factory.
+     *
+     * @return executor options.
+     */
+    QJdbcExecutorOptions getExecutorOptions() {
+        executorOptions
+    }
 }
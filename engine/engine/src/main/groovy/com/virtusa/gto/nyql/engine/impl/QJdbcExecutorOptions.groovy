@@ -0,0 +1,89 @@
+package com.virtusa.gto.nyql.engine.impl
+
+import com.virtusa.gto.nyql.configs.ConfigKeys
+import groovy.transform.CompileStatic
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+/**
+ * Execution options shared among all jdbc executors created from a single factory.
+ * These are read from the 'executor' section of the configuration.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class QJdbcExecutorOptions {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QJdbcExecutorOptions)
+
+    /**
+     * Options used when nothing has been configured.
+     */
+    static final QJdbcExecutorOptions DEFAULT = new QJdbcExecutorOptions()
+
+    /**
+     * Statement cache shared among executors. Null if disabled.
+     */
+    QJdbcStatementCache statementCache
+
+    /**
+     * Whether parameter lists should be padded to a bucketed size by repeating the last value.
+     */
+    boolean paramListPadding = false
+
+    /**
+     * Maximum number of records sent to the database in a single batch execution.
+     * Zero or negative means all records will be sent at once.
+     */
+    int batchSize = 0
+
+    /**
+     * Commits the bulk operation after every this number of batch executions.
+     * Zero or negative means commit only once at the end.
+     */
+    int batchCommitInterval = 0
+
+    /**
+     * Default fetch size used for streamed queries. Zero means driver default.
+     */
+    int fetchSize = 0
+
+    /**
+     * Reads executor options from the given executor configuration map.
+     *
+     * @param options executor configurations.
+     * @return executor options.
+     */
+    static QJdbcExecutorOptions fromConfig(Map options) {
+        QJdbcExecutorOptions executorOptions = new QJdbcExecutorOptions()
+
+        int cacheSize = readInt(options, ConfigKeys.STATEMENT_CACHE_SIZE, 0)
+        if (cacheSize > 0) {
+            LOGGER.info("Prepared statement cache enabled with maximum ${cacheSize} statements per connection.")
+            executorOptions.statementCache = new QJdbcStatementCache(cacheSize)
+        }
+
+        executorOptions.paramListPadding = readBool(options, ConfigKeys.PARAM_LIST_PADDING, false)
+        executorOptions.batchSize = readInt(options, ConfigKeys.BATCH_SIZE, 0)
+        executorOptions.batchCommitInterval = readInt(options, ConfigKeys.BATCH_COMMIT_INTERVAL, 0)
+        executorOptions.fetchSize = readInt(options, ConfigKeys.FETCH_SIZE, 0)
+        executorOptions
+    }
+
+    /**
+     * Releases all resources held by these options.
+     */
+    void close() {
+        if (statementCache != null) {
+            statementCache.clear()
+        }
+    }
+
+    private static int readInt(Map options, String key, int defValue) {
+        options[key] != null ? Integer.parseInt(String.valueOf(options[key])) : defValue
+    }
+
+    private static boolean readBool(Map options, String key, boolean defValue) {
+        options[key] != null ? Boolean.parseBoolean(String.valueOf(options[key])) : defValue
+    }
+}
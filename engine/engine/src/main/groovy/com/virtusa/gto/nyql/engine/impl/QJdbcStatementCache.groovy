@@ -0,0 +1,257 @@
+package com.virtusa.gto.nyql.engine.impl
+
+import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+@java.lang.SuppressWarnings('JdbcConnectionReference')
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.SQLException
+import java.sql.Statement
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Executor level prepared statement cache which keeps a bounded LRU set of statements
+ * per physical jdbc connection, keyed by the final sql string.
+ *
+ * Statements are prepared on the physical connection unwrapped from the pool's proxy, so
+ * they are neither tracked nor closed by the pool when a connection is returned, and can be
+ * reused by any later checkout of the same physical connection. Cached statements of a
+ * connection are evicted only when the pool closes or drops that connection.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class QJdbcStatementCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QJdbcStatementCache)
+
+    private final int maxSize
+    private final Map<Connection, StatementLRU> connectionCaches = new IdentityHashMap<>()
+    private final AtomicLong hitCount = new AtomicLong(0)
+
+    QJdbcStatementCache(int maxStatementsPerConnection) {
+        maxSize = maxStatementsPerConnection
+    }
+
+    /**
+     * Returns a cached prepared statement for the given query in this connection, or
+     * prepares a new one and caches it.
+     *
+     * @param connection connection, or its pool proxy, to prepare statement in.
+     * @param query final sql query.
+     * @param returnKeys whether generated keys should be returned.
+     * @return prepared statement.
+     * @throws SQLException any exception thrown while preparing statement.
+     */
+    PreparedStatement prepare(Connection connection, String query, boolean returnKeys) throws SQLException {
+        Connection physical = physicalConnection(connection)
+        StatementLRU lru = findCache(physical)
+        String key = returnKeys ? ('K:' + query) : ('N:' + query)
+
+        synchronized (lru) {
+            PreparedStatement statement = lru.get(key)
+            if (statement != null) {
+                if (!statement.isClosed()) {
+                    hitCount.incrementAndGet()
+                    return statement
+                }
+                lru.remove(key)
+            }
+
+            statement = returnKeys ? physical.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+                    : physical.prepareStatement(query)
+            lru.put(key, statement)
+            return statement
+        }
+    }
+
+    /**
+     * Marks the given statement as no longer in use, so it can be reused by next execution.
+     * If the statement cannot be reset, it will be evicted from the cache and closed.
+     *
+     * @param connection connection, or its pool proxy, which statement was prepared.
+     * @param statement statement to release.
+     */
+    void release(Connection connection, PreparedStatement statement) {
+        try {
+            statement.clearParameters()
+            statement.clearBatch()
+            statement.clearWarnings()
+        } catch (SQLException ex) {
+            LOGGER.warn('Failed to reset cached statement! Evicting it from cache. [' + ex.message + ']')
+            evict(connection, statement)
+        }
+    }
+
+    /**
+     * Removes the given statement from cache and closes it.
+     *
+     * @param connection connection, or its pool proxy, which statement was prepared.
+     * @param statement statement to evict.
+     */
+    void evict(Connection connection, PreparedStatement statement) {
+        StatementLRU lru
+        synchronized (connectionCaches) {
+            lru = connectionCaches.get(physicalConnection(connection))
+        }
+        if (lru != null) {
+            synchronized (lru) {
+                lru.values().remove(statement)
+            }
+        }
+        closeQuietly(statement)
+    }
+
+    /**
+     * Closes and evicts all cached statements of the given connection. Returning a connection
+     * to the pool does not require this, since statements are kept for its next checkout.
+     *
+     * @param connection connection, or its pool proxy, which statements were prepared.
+     */
+    void evictAll(Connection connection) {
+        StatementLRU lru
+        synchronized (connectionCaches) {
+            lru = connectionCaches.remove(physicalConnection(connection))
+        }
+        closeAll(lru)
+    }
+
+    /**
+     * Closes all cached statements in all connections.
+     */
+    void clear() {
+        List<StatementLRU> lruList
+        synchronized (connectionCaches) {
+            lruList = new ArrayList<>(connectionCaches.values())
+            connectionCaches.clear()
+        }
+
+        for (StatementLRU lru : lruList) {
+            closeAll(lru)
+        }
+    }
+
+    /**
+     * Returns number of connections currently having cached statements.
+     *
+     * @return number of cached connections.
+     */
+    int getConnectionCount() {
+        synchronized (connectionCaches) {
+            connectionCaches.size()
+        }
+    }
+
+    /**
+     * Returns number of times a cached statement has been reused.
+     *
+     * @return number of cache hits.
+     */
+    long getHitCount() {
+        hitCount.get()
+    }
+
+    int getMaxSize() {
+        maxSize
+    }
+
+    /**
+     * Returns the physical connection behind the given pool proxy, or the given
+     * connection itself if it does not wrap another connection.
+     *
+     * @param connection pooled connection.
+     * @return physical connection.
+     */
+    @PackageScope
+    static Connection physicalConnection(Connection connection) {
+        try {
+            if (connection.isWrapperFor(Connection)) {
+                Connection physical = connection.unwrap(Connection)
+                if (physical != null) {
+                    return physical
+                }
+            }
+        } catch (SQLException | AbstractMethodError ex) {
+            LOGGER.trace('Connection cannot be unwrapped! [' + ex.message + ']')
+        }
+        connection
+    }
+
+    private StatementLRU findCache(Connection connection) {
+        List<StatementLRU> staleList = []
+        StatementLRU lru
+        synchronized (connectionCaches) {
+            lru = connectionCaches.get(connection)
+            if (lru == null) {
+                // connections closed or invalidated without being evicted must not hold their statements
+                Iterator<Map.Entry<Connection, StatementLRU>> iterator = connectionCaches.entrySet().iterator()
+                while (iterator.hasNext()) {
+                    Map.Entry<Connection, StatementLRU> entry = iterator.next()
+                    if (isClosed(entry.key)) {
+                        staleList.add(entry.value)
+                        iterator.remove()
+                    }
+                }
+
+                lru = new StatementLRU(maxSize)
+                connectionCaches.put(connection, lru)
+            }
+        }
+
+        for (StatementLRU stale : staleList) {
+            closeAll(stale)
+        }
+        lru
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed()
+        } catch (SQLException ignored) {
+            return true
+        }
+    }
+
+    private static void closeAll(StatementLRU lru) {
+        if (lru == null) {
+            return
+        }
+        synchronized (lru) {
+            lru.values().each { closeQuietly(it) }
+            lru.clear()
+        }
+    }
+
+    @PackageScope
+    static void closeQuietly(Statement statement) {
+        try {
+            statement.close()
+        } catch (SQLException ex) {
+            LOGGER.warn('Failed to close cached statement! [' + ex.message + ']')
+        }
+    }
+
+    @CompileStatic
+    private static class StatementLRU extends LinkedHashMap<String, PreparedStatement> {
+
+        private final int capacity
+
+        StatementLRU(int capacity) {
+            super(16, 0.75f, true)
+            this.capacity = capacity
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > capacity) {
+                LOGGER.trace('Evicting cached statement from connection cache.')
+                closeQuietly(eldest.value)
+                return true
+            }
+            false
+        }
+    }
+}
@@ -4,13 +4,22 @@ import com.virtusa.gto.nyql.configs.Configurations
 import com.virtusa.gto.nyql.exceptions.NyException
 import com.virtusa.gto.nyql.model.*
 import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
 import org.codehaus.groovy.control.CompilationFailedException
 import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer
 import org.codehaus.groovy.control.customizers.ImportCustomizer
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 
+import java.lang.management.ManagementFactory
+import java.lang.management.ThreadMXBean
+import java.nio.file.Paths
+import java.util.concurrent.Callable
 import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
+import java.util.concurrent.TimeUnit
 /**
  * @author IWEERARATHNA
  */
@@ -19,7 +28,18 @@ class Caching implements Closeable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Caching)
 
+    private static final int SLOWEST_SCRIPT_COUNT = 10
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean()
+
     private final Map<String, QScript> cache = new ConcurrentHashMap<>()
+    private final Map<String, List<String>> shapeVariables = new ConcurrentHashMap<>()
+    private final ShapeQueryCache shapeCache
+    private final Map<String, ScriptConstructor> compiledScripts = new ConcurrentHashMap<>()
+    private final Set<String> dynamicFallbacks = ConcurrentHashMap.newKeySet()
+    private final ScriptCallGraph callGraph = new ScriptCallGraph()
+    private volatile boolean callGraphReady = false
+    private volatile Map<String, QScript> preTranslated = Collections.emptyMap()
+    private Set<String> declarativeScripts = null
 
     private CompilerConfiguration compilerConfigurations
     private final NyGroovyClassLoader gcl
@@ -27,17 +47,27 @@ class Caching implements Closeable {
     private final QScriptMapper mapper
     private final Object clzLoaderLock = new Object()
     private ScriptCacheValidator cacheValidator
+    private ScriptClassStore classStore
 
     Caching(Configurations theConfigs, QScriptMapper scriptMapper) {
         configurations = theConfigs
         mapper = scriptMapper
         cacheValidator = new ScriptCacheValidator(theConfigs)
+        shapeCache = new ShapeQueryCache(theConfigs.shapedQueriesMaxEntries(), theConfigs.shapedQueriesMaxBytes())
 
         gcl = new NyGroovyClassLoader(Thread.currentThread().contextClassLoader, makeCompilerConfigs())
+
+        String classCacheDir = theConfigs.classCacheDir()
+        if (classCacheDir != null && theConfigs.cacheRawScripts()) {
+            classStore = new ScriptClassStore(Paths.get(classCacheDir), gcl, theConfigs.defaultImports(),
+                    theConfigs.isStaticDsl())
+        }
     }
 
-    void compileAllScripts(Collection<QSource> sources) throws NyException {
+    void compileAllScripts(Collection<QSource> allSources) throws NyException {
         if (configurations.cacheRawScripts()) {
+            // ahead of time compiled scripts are already validated and compiled
+            Collection<QSource> sources = allSources.findAll { QSource src -> !(src instanceof QCompiledSource) }
             synchronized (clzLoaderLock) {
                 // check for caching issues in scripts
                 if (configurations.isCheckCacheValidations()) {
@@ -45,30 +75,167 @@ class Caching implements Closeable {
                 }
 
                 int n = sources.size()
-                int len = String.valueOf(n).length()
-                int curr = 1
+                int threads = Math.max(1, Math.min(configurations.compileThreads(), n))
 
-                LOGGER.info("Compiling all ${n} dsl script(s)...")
-                for (QSource qSource : sources) {
-                    String id = qSource.id
-                    try {
-                        LOGGER.debug('  Compiling [' + padLeft(len, curr++) + '/' + n + ']: ' + id)
-                        gcl.parseClass(qSource.codeSource, true)
-                    } catch (CompilationFailedException ex) {
-                        LOGGER.error("Compilation error in script '$id'", ex)
-                        throw new NyException("Compilation error in script '$id'!", ex)
+                LOGGER.info("Compiling all ${n} dsl script(s) using ${threads} thread(s)...")
+                long startTime = System.nanoTime()
+                List<CompileStat> stats = threads > 1 ? compileInParallel(sources, threads) : compileInSequence(sources)
+                long wallTime = System.nanoTime() - startTime
+
+                List<CompileStat> failed = stats.findAll { CompileStat stat -> stat.error != null }
+                if (!failed.isEmpty()) {
+                    for (CompileStat stat : failed) {
+                        LOGGER.error("Compilation error in script '${stat.id}'", stat.error)
                     }
+                    String ids = failed.collect { CompileStat stat -> stat.id }.join(', ')
+                    throw new NyException("Compilation error in ${failed.size()} script(s)! [$ids]", failed[0].error)
                 }
+
+                for (CompileStat stat : stats) {
+                    compiledScripts.put(stat.id, new ScriptConstructor(stat.scriptClass))
+                }
+                logCompileSummary(stats, wallTime)
                 LOGGER.info('Compilation successful!')
                 LOGGER.info('-'*80)
             }
         }
     }
 
+    private List<CompileStat> compileInSequence(Collection<QSource> sources) {
+        List<CompileStat> stats = new ArrayList<>(sources.size())
+        int n = sources.size()
+        int len = String.valueOf(n).length()
+        int curr = 1
+        for (QSource qSource : sources) {
+            LOGGER.debug('  Compiling [' + padLeft(len, curr++) + '/' + n + ']: ' + qSource.id)
+            stats.add(compileSource(qSource, false))
+        }
+        stats
+    }
+
+    private List<CompileStat> compileInParallel(Collection<QSource> sources, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads)
+        try {
+            List<ForkJoinTask<CompileStat>> tasks = new ArrayList<ForkJoinTask<CompileStat>>(sources.size())
+            for (QSource qSource : sources) {
+                // loop variable is shared among iterations, hence closure must capture a local copy
+                QSource source = qSource
+                tasks.add(pool.submit({ compileSource(source, true) } as Callable<CompileStat>))
+            }
+
+            List<CompileStat> stats = new ArrayList<>(tasks.size())
+            for (ForkJoinTask<CompileStat> task : tasks) {
+                stats.add(task.join())
+            }
+            stats
+        } finally {
+            pool.shutdown()
+        }
+    }
+
+    private CompileStat compileSource(QSource qSource, boolean concurrently) {
+        CompileStat stat = new CompileStat(id: qSource.id)
+        long cpuStart = threadCpuTime()
+        long startTime = System.nanoTime()
+        boolean staticDsl = configurations.isStaticDsl()
+        dynamicFallbacks.remove(qSource.id)
+        try {
+            stat.scriptClass = compileClass(qSource, concurrently, staticDsl)
+        } catch (CompilationFailedException ex) {
+            if (staticDsl) {
+                try {
+                    stat.scriptClass = compileDynamically(qSource, ex)
+                } catch (CompilationFailedException dynamicEx) {
+                    stat.error = dynamicEx
+                }
+            } else {
+                stat.error = ex
+            }
+        }
+        stat.wallTime = System.nanoTime() - startTime
+        stat.cpuTime = threadCpuTime() - cpuStart
+        stat
+    }
+
+    private Class compileClass(QSource qSource, boolean concurrently, boolean staticDsl) throws CompilationFailedException {
+        if (classStore != null) {
+            classStore.load(qSource, createCompilerConfigs(staticDsl))
+        } else if (concurrently || staticDsl != configurations.isStaticDsl()) {
+            gcl.parseClassConcurrently(qSource.codeSource, createCompilerConfigs(staticDsl))
+        } else {
+            gcl.parseClass(qSource.codeSource, true)
+        }
+    }
+
+    /**
+     * Compiles a script dynamically, when it cannot be compiled in static DSL mode.
+     */
+    private Class compileDynamically(QSource qSource, CompilationFailedException staticError) throws CompilationFailedException {
+        LOGGER.warn("Script '${qSource.id}' cannot be compiled statically, hence compiled dynamically. [${staticFailureReason(staticError)}]")
+        Class clazz = compileClass(qSource, true, false)
+        dynamicFallbacks.add(qSource.id)
+        clazz
+    }
+
+    /**
+     * Extracts the first static type checking error from a compilation failure.
+     *
+     * @param staticError compilation failure in static DSL mode.
+     * @return reason for the failure.
+     */
+    @PackageScope
+    static String staticFailureReason(CompilationFailedException staticError) {
+        List<String> lines = staticError.message != null ? staticError.message.readLines() : Collections.<String>emptyList()
+        int at = lines.findIndexOf { String line -> line.contains('[Static type checking]') }
+        String reason = staticError.message
+        if (at >= 0) {
+            String line = lines.get(at)
+            reason = line.substring(line.indexOf('[Static type checking]')).trim()
+            if (at + 1 < lines.size()) {
+                reason += ' ' + lines.get(at + 1).trim()
+            }
+        }
+        reason
+    }
+
+    private static void logCompileSummary(List<CompileStat> stats, long wallTime) {
+        long cpuTime = 0
+        for (CompileStat stat : stats) {
+            cpuTime += stat.cpuTime
+        }
+        LOGGER.info("Compiled ${stats.size()} script(s) in ${toMillis(wallTime)}ms wall time, " +
+                "${toMillis(cpuTime)}ms cpu time.")
+
+        List<CompileStat> slowest = stats.sort(false) { CompileStat a, CompileStat b -> b.wallTime <=> a.wallTime }
+                .take(SLOWEST_SCRIPT_COUNT)
+        if (!slowest.isEmpty()) {
+            LOGGER.info("Slowest ${slowest.size()} script(s):")
+            for (CompileStat stat : slowest) {
+                LOGGER.info("  ${toMillis(stat.wallTime)}ms (cpu ${toMillis(stat.cpuTime)}ms): ${stat.id}")
+            }
+        }
+    }
+
+    private static long threadCpuTime() {
+        THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0L
+    }
+
+    private static long toMillis(long nanos) {
+        TimeUnit.NANOSECONDS.toMillis(nanos)
+    }
+
     @CompileStatic
     private void doCheckScripts(Collection<QSource> sources) throws NyException {
         try {
-            cacheValidator.check(sources)
+            Set<String> declarative = new HashSet<>()
+            for (ScriptCacheValidator.Analysis analysis : cacheValidator.check(sources)) {
+                callGraph.update(analysis.id, analysis.calls)
+                if (analysis.declarative) {
+                    declarative.add(analysis.id)
+                }
+            }
+            callGraphReady = true
+            declarativeScripts = declarative
         } finally {
             LOGGER.debug('-'*80)
         }
@@ -79,13 +246,157 @@ class Caching implements Closeable {
     }
 
     void reloadScript(String scriptId) throws NyException {
+        invalidateGenerated(scriptId)
+        invalidateDependents([scriptId])
+        recompile(scriptId, mapper.reload(scriptId))
+    }
+
+    /**
+     * Makes sure the script call graph is available, even when cache validations
+     * have been turned off at startup.
+     *
+     * @param allSources all scripts.
+     */
+    void buildCallGraph(Collection<QSource> allSources) {
+        if (callGraphReady) {
+            return
+        }
+        for (QSource source : allSources) {
+            if (!(source instanceof QCompiledSource)) {
+                callGraph.update(source.id, ScriptCacheValidator.findScriptCalls(source))
+            }
+        }
+        callGraphReady = true
+    }
+
+    /**
+     * Returns ids of all purely declarative scripts, reusing the analysis done
+     * while validating scripts at startup, if available.
+     *
+     * @param allSources all scripts.
+     * @return ids of declarative scripts.
+     */
+    Set<String> findDeclarativeScripts(Collection<QSource> allSources) {
+        if (declarativeScripts != null) {
+            return declarativeScripts
+        }
+        Set<String> declarative = new HashSet<>()
+        for (QSource source : allSources) {
+            if (!(source instanceof QCompiledSource) && ScriptCacheValidator.isDeclarative(source)) {
+                declarative.add(source.id)
+            }
+        }
+        declarative
+    }
+
+    /**
+     * Replaces all pre-translated queries. Given map is copied into an immutable map,
+     * hence lookups never need any synchronization.
+     *
+     * @param scripts generated queries by script id, without any session attached.
+     */
+    void setPreTranslated(Map<String, QScript> scripts) {
+        preTranslated = Collections.unmodifiableMap(new HashMap<String, QScript>(scripts))
+    }
+
+    /**
+     * Returns the query translated at startup for the given script.
+     *
+     * @param scriptId script id.
+     * @param session session instance.
+     * @return new script instance spawned for the session, or null if not pre-translated.
+     */
+    QScript getPreTranslated(String scriptId, QSession session) {
+        QScript qScript = preTranslated.get(scriptId)
+        qScript != null ? qScript.spawn(session) : null
+    }
+
+    private synchronized void removePreTranslated(Collection<String> scriptIds) {
+        Map<String, QScript> current = preTranslated
+        if (current.isEmpty() || !scriptIds.any { String id -> current.containsKey(id) }) {
+            return
+        }
+        Map<String, QScript> remaining = new HashMap<>(current)
+        remaining.keySet().removeAll(scriptIds)
+        preTranslated = Collections.unmodifiableMap(remaining)
+    }
+
+    /**
+     * Applies changes of script files notified by the watcher. Changed scripts are
+     * recompiled, and generated queries of changed, removed and all their dependent
+     * scripts are invalidated. A script failing to compile keeps its previous version.
+     *
+     * @param changed ids of created or modified scripts.
+     * @param removed ids of deleted scripts.
+     */
+    void scriptsChanged(Collection<String> changed, Collection<String> removed) {
+        for (String scriptId : removed) {
+            invalidateGenerated(scriptId)
+            compiledScripts.remove(scriptId)
+            LOGGER.info("Script '{}' has been removed.", scriptId)
+        }
+
+        for (String scriptId : changed) {
+            invalidateGenerated(scriptId)
+            try {
+                QSource source = mapper.map(scriptId)
+                callGraph.update(scriptId, ScriptCacheValidator.findScriptCalls(source))
+                recompile(scriptId, source)
+                LOGGER.info("Script '{}' has been reloaded.", scriptId)
+            } catch (NyException ex) {
+                LOGGER.warn("Failed to reload changed script '$scriptId'! Previous version will be used. [${ex.message}]")
+            } catch (Exception ex) {
+                LOGGER.error("Failed to reload changed script '$scriptId'! Previous version will be used.", ex)
+            }
+        }
+
+        Set<String> affected = new HashSet<>(changed)
+        affected.addAll(removed)
+        invalidateDependents(affected)
+        for (String scriptId : removed) {
+            callGraph.remove(scriptId)
+        }
+    }
+
+    private void invalidateGenerated(String scriptId) {
+        removePreTranslated([scriptId])
         cache.remove(scriptId)
-        def reloaded = mapper.reload(scriptId)
+        shapeVariables.remove(scriptId)
+        shapeCache.invalidate(scriptId)
+    }
+
+    private void invalidateDependents(Collection<String> scriptIds) {
+        Set<String> dependents = callGraph.dependentsOf(scriptIds)
+        removePreTranslated(dependents)
+        for (String dependent : dependents) {
+            cache.remove(dependent)
+            shapeCache.invalidate(dependent)
+        }
+        if (!dependents.isEmpty()) {
+            LOGGER.debug('Invalidated generated queries of dependent scripts: {}', dependents)
+        }
+    }
+
+    private void recompile(String scriptId, QSource reloaded) throws NyException {
+        if (reloaded instanceof QCompiledSource) {
+            LOGGER.debug(' Script ' + scriptId + ' is precompiled and cannot be recompiled.')
+            return
+        }
         synchronized (clzLoaderLock) {
             try {
                 LOGGER.debug('-'*80)
                 LOGGER.debug(' Recompiling script: ' + scriptId + '...')
-                gcl.parseClass(reloaded.codeSource, true, true)
+                Class clazz
+                dynamicFallbacks.remove(reloaded.id)
+                try {
+                    clazz = gcl.parseClass(reloaded.codeSource, true, true)
+                } catch (CompilationFailedException ex) {
+                    if (!configurations.isStaticDsl()) {
+                        throw ex
+                    }
+                    clazz = compileDynamically(reloaded, ex)
+                }
+                compiledScripts.put(reloaded.id, new ScriptConstructor(clazz))
                 LOGGER.debug(' Successfully recompiled the script ' + scriptId)
             } catch (CompilationFailedException ex) {
                 LOGGER.error("Compilation error in script '$scriptId'", ex)
@@ -106,6 +417,60 @@ class Caching implements Closeable {
         qScript
     }
 
+    /**
+     * Returns a generated query from the shape cache, if the script has been already
+     * identified as a shape cached script and a query has been generated for the same
+     * shape variable values as in the given session.
+     *
+     * @param scriptId script id.
+     * @param session session instance.
+     * @return new script instance spawned for the session, or null if not cached.
+     */
+    QScript getShapedQuery(String scriptId, QSession session) {
+        List<String> vars = shapeVariables.get(scriptId)
+        if (vars == null) {
+            return null
+        }
+
+        QScript qScript = shapeCache.get(ShapeQueryCache.ShapeKey.of(scriptId, vars, session?.sessionVariables))
+        if (qScript != null) {
+            return qScript.spawn(session)
+        }
+        qScript
+    }
+
+    /**
+     * Creates the shape key for the given script using current session variable values.
+     * Declared shape variables will be remembered, so that next invocations of the same
+     * script can be looked up without running it.
+     *
+     * @param scriptId script id.
+     * @param vars declared shape variables of the script.
+     * @param session session instance.
+     * @return shape key.
+     */
+    ShapeQueryCache.ShapeKey makeShapeKey(String scriptId, List<String> vars, QSession session) {
+        List<String> declared = Collections.unmodifiableList(new ArrayList<String>(vars))
+        shapeVariables.put(scriptId, declared)
+        ShapeQueryCache.ShapeKey.of(scriptId, declared, session?.sessionVariables)
+    }
+
+    /**
+     * Add a generated query to the shape cache.
+     *
+     * @param key shape key created before running the script.
+     * @param script generated query instance with result.
+     * @return the added script instance.
+     */
+    QScript addShapedQuery(ShapeQueryCache.ShapeKey key, QScript script) {
+        shapeCache.put(key, spawnScriptFrom(script))
+        script
+    }
+
+    ShapeQueryCache getShapeCache() {
+        shapeCache
+    }
+
     /**
      * Spawn a new script instance from already cached instance of script.
      *
@@ -128,6 +493,33 @@ class Caching implements Closeable {
         script
     }
 
+    /**
+     * Returns ids of all scripts whose classes have already been compiled.
+     *
+     * @return compiled script ids.
+     */
+    Set<String> compiledScriptIds() {
+        Collections.unmodifiableSet(compiledScripts.keySet())
+    }
+
+    /**
+     * Returns ids of scripts compiled dynamically, since they could not be compiled in static DSL mode.
+     *
+     * @return dynamically compiled script ids.
+     */
+    Set<String> dynamicallyCompiledScriptIds() {
+        Collections.unmodifiableSet(dynamicFallbacks)
+    }
+
+    /**
+     * Returns ids of scripts whose classes were loaded from the persistent class store without compiling.
+     *
+     * @return script ids loaded from the class store.
+     */
+    Set<String> storeLoadedScriptIds() {
+        classStore != null ? classStore.loadedScriptIds() : Collections.<String>emptySet()
+    }
+
     /**
      * Returns a new instance of compiled script from the cache.
      *
@@ -138,35 +530,61 @@ class Caching implements Closeable {
     Script getCompiledScript(QSource sourceScript, QSession session) {
         Binding binding = new Binding(session?.sessionVariables ?: [:])
         if (configurations.cacheRawScripts()) {
-            if (compilerConfigurations.recompileGroovySource) {
-                synchronized (clzLoaderLock) {
-                    parseAndGet(sourceScript, session, binding)
-                }
-            } else {
-                parseAndGet(sourceScript, session, binding)
+            ScriptConstructor constructor = compiledScripts.get(sourceScript.id)
+            if (constructor == null) {
+                constructor = loadScriptClass(sourceScript)
             }
+            NyBaseScript scr = constructor.newInstance()
+            scr.setBinding(binding)
+            scr.setSession(session)
+            scr
         } else {
             GroovyShell shell = new GroovyShell(Thread.currentThread().contextClassLoader, binding, makeCompilerConfigs())
-            NyBaseScript parsedScript = sourceScript.parseIn(shell)
+            NyBaseScript parsedScript
+            try {
+                parsedScript = sourceScript.parseIn(shell)
+            } catch (CompilationFailedException ex) {
+                if (!configurations.isStaticDsl()) {
+                    throw ex
+                }
+                shell = new GroovyShell(Thread.currentThread().contextClassLoader, binding, createCompilerConfigs(false))
+                parsedScript = sourceScript.parseIn(shell)
+            }
             parsedScript.setSession(session)
             parsedScript
         }
     }
 
     /**
-     * Parse the groovy source from class loader and apply the session and bindings.
+     * Parse the groovy source from class loader and remember its constructor, so
+     * subsequent invocations will not reach the class loader or any lock.
+     * Reloading a script replaces the remembered constructor.
      *
      * @param sourceScript source script.
-     * @param session session instance.
-     * @param binding binding instance.
-     * @return loaded compiled script.
+     * @return constructor of loaded script class.
      */
-    private Script parseAndGet(QSource sourceScript, QSession session, Binding binding) {
-        Class<?> clazz = gcl.parseClass(sourceScript.codeSource, true)
-        NyBaseScript scr = clazz.newInstance() as NyBaseScript
-        scr.setBinding(binding)
-        scr.setSession(session)
-        scr
+    private ScriptConstructor loadScriptClass(QSource sourceScript) {
+        synchronized (clzLoaderLock) {
+            ScriptConstructor constructor = compiledScripts.get(sourceScript.id)
+            if (constructor == null) {
+                Class<?> clazz
+                if (sourceScript instanceof QCompiledSource) {
+                    clazz = ((QCompiledSource) sourceScript).scriptClass
+                } else {
+                    try {
+                        clazz = gcl.parseClass(sourceScript.codeSource, true)
+                    } catch (CompilationFailedException ex) {
+                        if (!configurations.isStaticDsl()) {
+                            throw ex
+                        }
+                        clazz = compileDynamically(sourceScript, ex)
+                    }
+                }
+                constructor = new ScriptConstructor(clazz)
+                compiledScripts.put(sourceScript.id, constructor)
+            }
+            constructor
+        }
     }
 
     /**
@@ -176,9 +594,15 @@ class Caching implements Closeable {
      */
     void clearGeneratedCache(int level) {
         if (level >= 0) {
+            preTranslated = Collections.emptyMap()
             cache.clear()
+            shapeCache.clear()
         }
         if (level > 1) {
+            synchronized (clzLoaderLock) {
+                compiledScripts.clear()
+            }
+            shapeVariables.clear()
             gcl.clearCache()
         }
     }
@@ -193,6 +617,28 @@ class Caching implements Closeable {
             return compilerConfigurations
         }
 
+        // setup recompilation, if specified
+        boolean doRecompile = configurations.isAllowRecompilation()
+        if (doRecompile) {
+            LOGGER.warn('-'*100)
+            LOGGER.warn('*** NyQL has enabled to recompile scripts at runtime!')
+            LOGGER.warn("*** If this is NOT intentional, then set 'allowRecompilation' flag under 'caching' section to false")
+            LOGGER.warn('-'*100)
+        }
+
+        CompilerConfiguration compilerConfigurations = createCompilerConfigs(configurations.isStaticDsl())
+        this.compilerConfigurations = compilerConfigurations
+        compilerConfigurations
+    }
+
+    /**
+     * Creates a new set of compiler configurations without caching it.
+     *
+     * @param staticDsl whether to compile scripts statically. Only dynamic parts
+     *                  of scripts, such as table and column references, will be resolved at runtime.
+     * @return new compiler configuration instance.
+     */
+    private CompilerConfiguration createCompilerConfigs(boolean staticDsl) {
         CompilerConfiguration compilerConfigurations = new CompilerConfiguration()
         compilerConfigurations.scriptBaseClass = NyBaseScript.name
 
@@ -202,25 +648,43 @@ class Caching implements Closeable {
             importCustomizer.addImports(defImports)
             compilerConfigurations.addCompilationCustomizers(importCustomizer)
         }
-
-        // setup recompilation, if specified
-        boolean doRecompile = configurations.isAllowRecompilation()
-        if (doRecompile) {
-            LOGGER.warn('-'*100)
-            LOGGER.warn('*** NyQL has enabled to recompile scripts at runtime!')
-            LOGGER.warn("*** If this is NOT intentional, then set 'allowRecompilation' flag under 'caching' section to false")
-            LOGGER.warn('-'*100)
+        if (staticDsl) {
+            addStaticDslCustomizers(compilerConfigurations)
         }
-        compilerConfigurations.setRecompileGroovySource(doRecompile)
 
-        this.compilerConfigurations = compilerConfigurations
+        compilerConfigurations.setRecompileGroovySource(configurations.isAllowRecompilation())
         compilerConfigurations
     }
 
+    /**
+     * Adds customizers compiling scripts statically, while DSL calls are
+     * type checked against the query context delegate.
+     *
+     * @param compilerConfigurations compiler configuration to customize.
+     */
+    @PackageScope
+    static void addStaticDslCustomizers(CompilerConfiguration compilerConfigurations) {
+        compilerConfigurations.addCompilationCustomizers(new DslDelegateCustomizer(),
+                new ASTTransformationCustomizer([extensions: [DslTypeCheckingExtension.name]], CompileStatic))
+    }
+
     @Override
     void close() throws IOException {
+        LOGGER.debug('Shape cache statistics: {}', shapeCache)
+        shapeCache.clear()
         if (gcl != null) {
             gcl.close()
         }
     }
+
+    /**
+     * Compilation result of a single script.
+     */
+    private static class CompileStat {
+        String id
+        long wallTime
+        long cpuTime
+        Throwable error
+        Class scriptClass
+    }
 }
@@ -17,12 +17,14 @@ class DefaultMapperFactory implements QMapperFactory {
     private static final I_FOLDER = 'folder'
     private static final I_FOLDERS = 'folders'
     private static final I_RESOURCES = 'resources'
+    private static final I_PRECOMPILED = 'precompiled'
     private static final I_RESOURCES_CLZ = QResourceScripts.class.name
     private static final I_FOLDER_CLZ = QScriptsFolder.class.name
     private static final I_FOLDERS_CLZ = QScriptFolders.class.name
+    private static final I_PRECOMPILED_CLZ = QPrecompiledScripts.class.name
 
-    private static final String[] NAMES = [I_FOLDER, I_FOLDERS, I_RESOURCES,
-        I_FOLDER_CLZ, I_FOLDERS_CLZ, I_RESOURCES_CLZ]
+    private static final String[] NAMES = [I_FOLDER, I_FOLDERS, I_RESOURCES, I_PRECOMPILED,
+        I_FOLDER_CLZ, I_FOLDERS_CLZ, I_RESOURCES_CLZ, I_PRECOMPILED_CLZ]
 
     @Override
     String[] supportedMappers() {
@@ -37,6 +39,8 @@ class DefaultMapperFactory implements QMapperFactory {
             createNewFolders(args)
         } else if (implName == I_RESOURCES || implName == I_RESOURCES_CLZ) {
             createNewResource(args)
+        } else if (implName == I_PRECOMPILED || implName == I_PRECOMPILED_CLZ) {
+            createNewPrecompiled(args)
         } else {
             throw new NyConfigurationException("Unsupported mapper type '${implName}'! Supports only [${NAMES.join(',')}].")
         }
@@ -54,6 +58,25 @@ class DefaultMapperFactory implements QMapperFactory {
         new QResourceScripts(path)
     }
 
+    private static QPrecompiledScripts createNewPrecompiled(Map args) throws NyException {
+        ClassLoader classLoader = Thread.currentThread().contextClassLoader
+        if (args != null && args.bundle) {
+            String path = String.valueOf(args.bundle)
+            File bundle = new File(path)
+            if (!bundle.exists()) {
+                String configFilePath = args[ConfigKeys.LOCATION_KEY]
+                if (configFilePath != null && !bundle.isAbsolute()) {
+                    bundle = new File(configFilePath).getCanonicalFile().getParentFile().toPath().resolve(path).toFile()
+                }
+                if (!bundle.exists()) {
+                    throw new NyConfigurationException('Given precompiled script bundle does not exist! [' + path + ']')
+                }
+            }
+            classLoader = new URLClassLoader([bundle.toURI().toURL()] as URL[], classLoader)
+        }
+        new QPrecompiledScripts(classLoader)
+    }
+
     @SuppressWarnings("UnnecessaryGetter")
     private static QScriptFolders createNewFolders(Map args) throws NyException {
         if (args == null || args.size() == 0 || !args.baseDirs) {
@@ -0,0 +1,77 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import groovy.transform.CompileStatic
+import org.codehaus.groovy.ast.ClassCodeExpressionTransformer
+import org.codehaus.groovy.ast.ClassNode
+import org.codehaus.groovy.ast.DynamicVariable
+import org.codehaus.groovy.ast.expr.ClosureExpression
+import org.codehaus.groovy.ast.expr.Expression
+import org.codehaus.groovy.ast.expr.PropertyExpression
+import org.codehaus.groovy.ast.expr.VariableExpression
+import org.codehaus.groovy.classgen.GeneratorContext
+import org.codehaus.groovy.control.CompilationFailedException
+import org.codehaus.groovy.control.CompilePhase
+import org.codehaus.groovy.control.SourceUnit
+import org.codehaus.groovy.control.customizers.CompilationCustomizer
+
+/**
+ * Rewrites undeclared names referred inside closures as properties of the closure delegate,
+ * before scripts are compiled statically.
+ *
+ * DSL clauses rehydrate their closures with the clause itself as the owner, therefore
+ * the owner chain assumed by static compilation does not exist at runtime. Resolving
+ * those names through the delegate is what <code>DELEGATE_ONLY</code> does dynamically.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class DslDelegateCustomizer extends CompilationCustomizer {
+
+    private static final Set<String> CLOSURE_VARIABLES = ['delegate', 'owner', 'thisObject', 'this', 'super'] as Set
+
+    DslDelegateCustomizer() {
+        super(CompilePhase.CANONICALIZATION)
+    }
+
+    @Override
+    void call(SourceUnit source, GeneratorContext context, ClassNode classNode) throws CompilationFailedException {
+        new DelegateTransformer(source).visitClass(classNode)
+    }
+
+    private static class DelegateTransformer extends ClassCodeExpressionTransformer {
+
+        private final SourceUnit sourceUnit
+        private int closureDepth = 0
+
+        DelegateTransformer(SourceUnit sourceUnit) {
+            this.sourceUnit = sourceUnit
+        }
+
+        @Override
+        protected SourceUnit getSourceUnit() {
+            sourceUnit
+        }
+
+        @Override
+        Expression transform(Expression exp) {
+            if (exp instanceof ClosureExpression) {
+                closureDepth++
+                try {
+                    ((ClosureExpression) exp).code?.visit(this)
+                } finally {
+                    closureDepth--
+                }
+                return exp
+            }
+            if (closureDepth > 0 && exp instanceof VariableExpression) {
+                VariableExpression var = (VariableExpression) exp
+                if (var.accessedVariable instanceof DynamicVariable && !CLOSURE_VARIABLES.contains(var.name)) {
+                    PropertyExpression pexp = new PropertyExpression(new VariableExpression('delegate'), var.name)
+                    pexp.sourcePosition = var
+                    return pexp
+                }
+            }
+            super.transform(exp)
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import org.codehaus.groovy.ast.ClassHelper
+import org.codehaus.groovy.ast.expr.AttributeExpression
+import org.codehaus.groovy.ast.expr.Expression
+import org.codehaus.groovy.ast.expr.MethodCall
+import org.codehaus.groovy.ast.expr.MethodCallExpression
+import org.codehaus.groovy.ast.expr.PropertyExpression
+import org.codehaus.groovy.ast.expr.VariableExpression
+import org.codehaus.groovy.transform.stc.GroovyTypeCheckingExtensionSupport
+import org.codehaus.groovy.transform.stc.StaticTypesMarker
+
+/**
+ * Type checking extension used when scripts are compiled statically.
+ *
+ * DSL clauses are statically dispatched to their delegates declared through
+ * <code>@DelegatesTo</code>, while table names, column references and binding variables,
+ * which are only known at runtime, are left to be resolved dynamically. So are the
+ * clauses found only through an outer closure, or script methods such as <code>println</code>
+ * called within a closure, because DSL closures are rehydrated and neither such a closure
+ * nor the script is ever the delegate or <code>this</code> of an inner closure at runtime.
+ *
+ * @author IWEERARATHNA
+ */
+class DslTypeCheckingExtension extends GroovyTypeCheckingExtensionSupport.TypeCheckingDSL {
+
+    @Override
+    Object run() {
+        unresolvedVariable { VariableExpression var ->
+            makeDynamic(var)
+        }
+        unresolvedProperty { PropertyExpression pexp ->
+            makeDynamic(pexp)
+        }
+        unresolvedAttribute { AttributeExpression aexp ->
+            makeDynamic(aexp)
+        }
+        methodNotFound { receiver, String name, argList, argTypes, MethodCall call ->
+            makeDynamic(call)
+        }
+        afterMethodCall { MethodCall call ->
+            if (call instanceof MethodCallExpression && call.implicitThis) {
+                // without a receiver, the call is bound to the script, which is never 'this' of a rehydrated closure
+                String receiver = call.getNodeMetaData(StaticTypesMarker.IMPLICIT_RECEIVER)
+                if (receiver != null ? receiver != 'delegate' : enclosingClosure != null) {
+                    call.removeNodeMetaData(StaticTypesMarker.IMPLICIT_RECEIVER)
+                    call.putNodeMetaData(StaticTypesMarker.DIRECT_METHOD_CALL_TARGET, makeDynamic(call))
+                    storeType((Expression) call, ClassHelper.OBJECT_TYPE)
+                }
+            }
+        }
+        null
+    }
+}
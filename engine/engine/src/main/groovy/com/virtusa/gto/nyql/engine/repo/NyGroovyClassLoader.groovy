@@ -19,6 +19,52 @@ class NyGroovyClassLoader extends GroovyClassLoader {
         super(loader, config)
     }
 
+    /**
+     * Compiles the given source without holding the source cache lock, so several scripts
+     * can be compiled at the same time from different threads. Each script is compiled in
+     * a separate child loader and the resulting class is registered in source cache of this
+     * loader, as if it has been compiled through {@link #parseClass(GroovyCodeSource, boolean)}.
+     *
+     * Compiler configuration must not be shared among concurrent compilations, because
+     * class nodes of its customizers are modified while resolving.
+     *
+     * @param codeSource source to compile.
+     * @param config compiler configuration exclusive to this compilation.
+     * @return compiled class.
+     * @throws CompilationFailedException any compilation errors.
+     */
+    Class parseClassConcurrently(GroovyCodeSource codeSource, CompilerConfiguration config) throws CompilationFailedException {
+        String name = codeSource.getName()
+        synchronized (sourceCache) {
+            Class existing = sourceCache.get(name)
+            if (existing != null) {
+                return existing
+            }
+        }
+
+        Class clazz = new GroovyClassLoader(this, config).parseClass(codeSource, false)
+        registerClass(name, clazz)
+    }
+
+    /**
+     * Registers an externally loaded script class in source cache of this loader.
+     * If a class has been already registered for the same source, that will be returned.
+     *
+     * @param sourceName name of the code source.
+     * @param clazz script class.
+     * @return registered class.
+     */
+    Class registerClass(String sourceName, Class clazz) {
+        synchronized (sourceCache) {
+            Class existing = sourceCache.get(sourceName)
+            if (existing != null) {
+                return existing
+            }
+            sourceCache.put(sourceName, clazz)
+        }
+        clazz
+    }
+
     Class parseClass(GroovyCodeSource codeSource, boolean shouldCacheSource, boolean doRecompile) throws CompilationFailedException {
         if (doRecompile) {
             synchronized (sourceCache) {
@@ -0,0 +1,101 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import com.virtusa.gto.nyql.exceptions.NyConfigurationException
+import com.virtusa.gto.nyql.exceptions.NyScriptNotFoundException
+import com.virtusa.gto.nyql.model.NyBaseScript
+import com.virtusa.gto.nyql.model.QCompiledSource
+import com.virtusa.gto.nyql.model.QScriptMapper
+import com.virtusa.gto.nyql.model.QSource
+import groovy.transform.CompileStatic
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Loads scripts compiled ahead of time using {@link ScriptPrecompiler}.
+ * Script classes and indexes are looked up from the given class loader, hence
+ * several precompiled script jars can be available in the classpath at once.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class QPrecompiledScripts implements QScriptMapper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QPrecompiledScripts)
+
+    private final ClassLoader classLoader
+    private final Map<String, String> index = [:]
+    private final Map<String, QSource> sources = new ConcurrentHashMap<>()
+
+    QPrecompiledScripts(ClassLoader theClassLoader) {
+        classLoader = theClassLoader
+        loadIndexes()
+    }
+
+    private void loadIndexes() {
+        String currentVersion = ScriptDigest.readNyQLVersion()
+        Enumeration<URL> urls = classLoader.getResources(ScriptPrecompiler.INDEX_PATH)
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement()
+            Properties properties = new Properties()
+            url.openStream().withCloseable { InputStream stream -> properties.load(stream) }
+
+            String version = properties.getProperty(ScriptPrecompiler.VERSION_KEY)
+            if (version != currentVersion) {
+                LOGGER.warn("Scripts in '{}' were precompiled with a different NyQL version! [{}]", url, version)
+            }
+            for (String id : properties.stringPropertyNames()) {
+                if (id != ScriptPrecompiler.VERSION_KEY) {
+                    index.put(id, properties.getProperty(id))
+                }
+            }
+        }
+
+        if (index.isEmpty()) {
+            throw new NyConfigurationException('No precompiled scripts found in classpath! ' +
+                    "[${ScriptPrecompiler.INDEX_PATH}]")
+        }
+        LOGGER.info("Found ${index.size()} precompiled script(s).")
+    }
+
+    @Override
+    QSource map(String id) throws NyScriptNotFoundException {
+        QSource source = sources.get(id)
+        if (source != null) {
+            return source
+        }
+
+        String className = index.get(id)
+        if (className == null) {
+            throw new NyScriptNotFoundException(id)
+        }
+        try {
+            Class<? extends NyBaseScript> clazz = Class.forName(className, true, classLoader).asSubclass(NyBaseScript)
+            source = new QCompiledSource(id, clazz)
+        } catch (ClassNotFoundException ignored) {
+            throw new NyScriptNotFoundException(id)
+        }
+        sources.put(id, source)
+        source
+    }
+
+    @Override
+    Collection<QSource> allSources() {
+        List<QSource> all = []
+        for (String id : index.keySet()) {
+            all.add(map(id))
+        }
+        all
+    }
+
+    @Override
+    boolean canCacheAtStartup() {
+        true
+    }
+
+    @Override
+    QSource reload(String id) throws NyScriptNotFoundException {
+        map(id)
+    }
+}
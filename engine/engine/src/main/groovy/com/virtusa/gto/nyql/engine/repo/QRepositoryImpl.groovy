@@ -8,11 +8,11 @@ import com.virtusa.gto.nyql.exceptions.NyException
 import com.virtusa.gto.nyql.model.*
 import com.virtusa.gto.nyql.utils.Constants
 import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
 import org.codehaus.groovy.control.CompilationFailedException
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 
-import java.lang.reflect.Field
 import java.nio.file.Paths
 
 /**
@@ -28,12 +28,18 @@ class QRepositoryImpl implements QRepository {
 
     protected Configurations configurations
 
+    private ScriptWatcher scriptWatcher
+
+    private final ClassValue<ScriptDescriptor> scriptDescriptors
+
     QRepositoryImpl(Configurations theConfigs, QScriptMapper scriptMapper) {
         caching = new Caching(theConfigs, scriptMapper)
         mapper = scriptMapper
         configurations = theConfigs
+        scriptDescriptors = ScriptDescriptor.lookup(theConfigs.cachingIndicatorVarName(), theConfigs.cachingShapeVarName())
 
         initCache()
+        initWatcher()
     }
 
     private void initCache() throws NyException {
@@ -42,6 +48,37 @@ class QRepositoryImpl implements QRepository {
         }
     }
 
+    @CompileStatic
+    private void initWatcher() {
+        if (!configurations.isWatchScripts()) {
+            return
+        }
+        if (!(mapper instanceof QWatchableMapper)) {
+            LOGGER.warn('Script mapper {} does not support watching scripts for changes!', mapper.class.name)
+            return
+        }
+
+        QWatchableMapper watchableMapper = (QWatchableMapper) mapper
+        caching.buildCallGraph(mapper.allSources())
+        scriptWatcher = new ScriptWatcher(watchableMapper.startWatching(), configurations.watchDebounceMs(),
+                { Map<File, Boolean> changes -> onFilesChanged(watchableMapper, changes) } as ScriptWatcher.Listener)
+    }
+
+    @CompileStatic
+    private void onFilesChanged(QWatchableMapper watchableMapper, Map<File, Boolean> changes) {
+        Set<String> changed = new LinkedHashSet<>()
+        Set<String> removed = new LinkedHashSet<>()
+        for (Map.Entry<File, Boolean> entry : changes.entrySet()) {
+            String scriptId = watchableMapper.fileChanged(entry.key, entry.value)
+            if (scriptId != null) {
+                (entry.value ? removed : changed).add(scriptId)
+            }
+        }
+        if (!changed.isEmpty() || !removed.isEmpty()) {
+            caching.scriptsChanged(changed, removed)
+        }
+    }
+
     @Override
     String getName() {
         Constants.DEFAULT_REPOSITORY_IMPL
@@ -58,24 +95,83 @@ class QRepositoryImpl implements QRepository {
         caching.reloadScript(id)
     }
 
+    /**
+     * Translates all purely declarative scripts for the active database ahead of time,
+     * when enabled. Those scripts will be served without running them at all.
+     */
+    @CompileStatic
+    @Override
+    void prepare() throws NyException {
+        if (!configurations.isPreTranslateQueries() || !mapper.canCacheAtStartup()) {
+            return
+        }
+
+        Map<String, QScript> translated = [:]
+        for (String scriptId : caching.findDeclarativeScripts(mapper.allSources())) {
+            QScript script = translateAhead(scriptId)
+            if (script != null) {
+                translated.put(scriptId, script)
+            }
+        }
+        caching.setPreTranslated(translated)
+        LOGGER.info('Pre-translated {} declarative script(s).', translated.size())
+    }
+
+    @CompileStatic
+    private QScript translateAhead(String scriptId) {
+        QSession session = QSession.create(configurations, scriptId)
+        try {
+            Object res = caching.getCompiledScript(mapper.map(scriptId), session).run()
+            if (res instanceof QResultProxy || res instanceof QScriptList) {
+                return convertResult(scriptId, res, session).spawn()
+            }
+        } catch (Exception ex) {
+            LOGGER.debug("Script '$scriptId' cannot be translated ahead. [${ex.message}]")
+        } finally {
+            session.free()
+        }
+        null
+    }
+
     @CompileStatic
     QScript parse(String scriptIdGiven, QSession session) throws NyException {
         String scriptId = resolveScriptId(scriptIdGiven, session.currentCallingFromScript())
+        QScript translated = caching.getPreTranslated(scriptId, session)
+        if (translated != null) {
+            LOGGER.trace('Script {} served as pre-translated.', scriptId)
+            return translated
+        }
+
         QSource src = mapper.map(scriptId)
 
-        if (configurations.cacheGeneratedQueries() && caching.hasGeneratedQuery(scriptId)) {
-            LOGGER.trace('Script {} served from query cache.', scriptId)
-            return caching.getGeneratedQuery(scriptId, session)
+        boolean cacheQueries = configurations.cacheGeneratedQueries()
+        if (cacheQueries) {
+            if (caching.hasGeneratedQuery(scriptId)) {
+                LOGGER.trace('Script {} served from query cache.', scriptId)
+                return caching.getGeneratedQuery(scriptId, session)
+            }
+
+            QScript shaped = caching.getShapedQuery(scriptId, session)
+            if (shaped != null) {
+                LOGGER.trace('Script {} served from shape cache.', scriptId)
+                return shaped
+            }
         }
 
         try {
             Script compiledScript = caching.getCompiledScript(src, session)
 
+            // shape must be captured before running, because script may alter session variables
+            ShapeQueryCache.ShapeKey shapeKey = cacheQueries ? readShapeKey(compiledScript, scriptId, session) : null
+
             LOGGER.info("Running script '{}'", scriptId)
             Object res = compiledScript.run()
 
             QScript script = convertResult(scriptId, res, session)
-            cacheIfSpecified(compiledScript, scriptId, script)
+            if (!cacheIfSpecified(compiledScript, scriptId, script) && shapeKey != null
+                    && !(script instanceof QScriptResult)) {
+                caching.addShapedQuery(shapeKey, script)
+            }
             return script
 
         } catch (CompilationFailedException ex) {
@@ -86,7 +182,8 @@ class QRepositoryImpl implements QRepository {
     }
 
     @CompileStatic
-    private static String resolveScriptId(String scriptId, String currentScript) {
+    @PackageScope
+    static String resolveScriptId(String scriptId, String currentScript) {
         if (scriptId.startsWith('./') || scriptId.startsWith('../')) {
             Paths.get(currentScript).resolve('..').resolve(scriptId).normalize().toString()
         } else {
@@ -95,18 +192,45 @@ class QRepositoryImpl implements QRepository {
     }
 
     @CompileStatic
-    protected void cacheIfSpecified(Script compiledScript, String scriptId, QScript script) {
-        try {
-            Field field = compiledScript.getClass().getDeclaredField(configurations.cachingIndicatorVarName())
-            field.setAccessible(true)
-            boolean doCache = field.get(compiledScript) ?: false
-            if (doCache) {
-                LOGGER.trace("Script $scriptId cachable status: " + doCache)
-                caching.addGeneratedQuery(scriptId, script)
+    protected boolean cacheIfSpecified(Script compiledScript, String scriptId, QScript script) {
+        boolean doCache = scriptDescriptors.get(compiledScript.getClass()).isCached(compiledScript)
+        if (doCache) {
+            LOGGER.trace("Script $scriptId cachable status: " + doCache)
+            caching.addGeneratedQuery(scriptId, script)
+        }
+        doCache
+    }
+
+    /**
+     * Reads declared shape variables of the script and creates the shape key
+     * using current session values.
+     *
+     * @param compiledScript compiled script instance before running.
+     * @param scriptId script id.
+     * @param session session instance.
+     * @return shape key, or null if script has not declared shape variables.
+     */
+    @CompileStatic
+    protected ShapeQueryCache.ShapeKey readShapeKey(Script compiledScript, String scriptId, QSession session) {
+        ScriptDescriptor descriptor = scriptDescriptors.get(compiledScript.getClass())
+        if (!descriptor.hasShapeVariables()) {
+            return null
+        }
+
+        Object vars = descriptor.readShapeVariables(compiledScript)
+
+        if (vars instanceof Collection) {
+            List<String> names = []
+            for (Object name : (Collection) vars) {
+                names.add(String.valueOf(name))
             }
-        } catch (ignored) {
-            //LOGGER.error("No field do_cache in $scriptId")
+            return caching.makeShapeKey(scriptId, names, session)
+        } else if (vars instanceof String) {
+            return caching.makeShapeKey(scriptId, [(String) vars], session)
+        } else if (vars != null) {
+            LOGGER.warn("Shape variables of script '{}' must be a list of session variable names!", scriptId)
         }
+        null
     }
 
     @CompileStatic
@@ -123,6 +247,9 @@ class QRepositoryImpl implements QRepository {
 
     @Override
     void close() throws IOException {
+        if (scriptWatcher != null) {
+            scriptWatcher.close()
+        }
         if (caching != null) {
             caching.close()
         }
@@ -6,17 +6,19 @@ import com.virtusa.gto.nyql.exceptions.NyScriptNotFoundException
 import com.virtusa.gto.nyql.model.QScriptMapper
 import com.virtusa.gto.nyql.model.QSource
 import groovy.transform.CompileStatic
+
+import java.util.concurrent.ConcurrentHashMap
 /**
  * Stores script mapping from several folders in the system.
  *
  * @author IWEERARATHNA
  */
 @CompileStatic
-class QScriptFolders implements QScriptMapper {
+class QScriptFolders implements QScriptMapper, QWatchableMapper {
 
     private final List<QScriptsFolder> scriptsFolderList = []
-    private final Map<String, QSource> fileMap = [:]
-    private final Map<String, QScriptsFolder> scriptsFolderMap = [:]
+    private final Map<String, QSource> fileMap = new ConcurrentHashMap<>()
+    private final Map<String, QScriptsFolder> scriptsFolderMap = new ConcurrentHashMap<>()
 
     QScriptFolders(Collection<List<?>> folders) {
         if (folders != null) {
@@ -80,4 +82,31 @@ class QScriptFolders implements QScriptMapper {
         fileMap.put(id, script)
         map(id)
     }
+
+    @Override
+    Collection<File> startWatching() {
+        List<File> dirs = []
+        for (QScriptsFolder folder : scriptsFolderList) {
+            dirs.addAll(folder.startWatching())
+        }
+        dirs
+    }
+
+    @Override
+    String fileChanged(File file, boolean deleted) {
+        for (QScriptsFolder folder : scriptsFolderList) {
+            String id = folder.fileChanged(file, deleted)
+            if (id != null) {
+                if (deleted) {
+                    fileMap.remove(id)
+                    scriptsFolderMap.remove(id)
+                } else {
+                    fileMap.put(id, folder.map(id))
+                    scriptsFolderMap.put(id, folder)
+                }
+                return id
+            }
+        }
+        null
+    }
 }
@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory
 import java.nio.charset.StandardCharsets
 import java.nio.file.*
 import java.nio.file.attribute.BasicFileAttributes
+import java.util.concurrent.ConcurrentHashMap
 import java.util.stream.Collectors
 import java.util.stream.Stream
 /**
@@ -20,7 +21,7 @@ import java.util.stream.Stream
  * @author IWEERARATHNA
  */
 @CompileStatic
-class QScriptsFolder implements QScriptMapper {
+class QScriptsFolder implements QScriptMapper, QWatchableMapper {
 
     static final String KEY_INCLUSIONS = 'inclusions'
     static final String KEY_EXCLUSIONS = 'exclusions'
@@ -32,8 +33,10 @@ class QScriptsFolder implements QScriptMapper {
     String inclusionPatterns
     String exclusionPatterns
     private int maxLen = 1
+    private volatile boolean watched = false
+    private ScriptVisitor visitor
 
-    private final Map<String, QSource> fileMap = [:]
+    private final Map<String, QSource> fileMap = new ConcurrentHashMap<>()
 
     QScriptsFolder(File theBaseDir) {
         baseDir = theBaseDir.getCanonicalFile()
@@ -44,14 +47,18 @@ class QScriptsFolder implements QScriptMapper {
         LOGGER.info("Loading script files from directory '{}'", baseDir.canonicalPath)
 
         Path canPath = baseDir.toPath()
-        ScriptVisitor visitor = new ScriptVisitor(this, canPath, inclusionPatterns, exclusionPatterns)
+        visitor = new ScriptVisitor(this, canPath, inclusionPatterns, exclusionPatterns)
         visitor.start()
         prettyPrintFiles()
         this
     }
 
+    private String scriptIdOf(File file) {
+        captureFileName(baseDir.toPath().relativize(file.toPath()).toString()).replace('\\', '/')
+    }
+
     private QSource processScript(File file) {
-        String relPath = captureFileName(baseDir.toPath().relativize(file.toPath()).toString()).replace('\\', '/')
+        String relPath = scriptIdOf(file)
         def qSrc = createSourceScript(file, baseDir)
 
         fileMap[relPath] = qSrc
@@ -85,19 +92,13 @@ class QScriptsFolder implements QScriptMapper {
     QSource map(String id) throws NyScriptNotFoundException {
         QSource source = fileMap[id]
         if (source == null) {
-            File scriptFresh = baseDir.toPath().resolve(id + ConfigKeys.GROOVY_EXT).toFile()
-            if (scriptFresh.exists()) {
-                LOGGER.debug('Loading a fresh script from ' + id + '...')
-                source = processScript(scriptFresh)
-            } else {
-                scriptFresh = baseDir.toPath().resolve(id + ConfigKeys.NYQL_EXT).toFile();
-                if (scriptFresh.exists()) {
-                    LOGGER.debug('Loading a fresh script from ' + id + '...')
-                    source = processScript(scriptFresh)
-                } else {
-                    throw new NyScriptNotFoundException(id)
-                }
+            // watcher notifies all new scripts, hence no need to probe file system
+            File scriptFresh = watched ? null : findScriptFile(id)
+            if (scriptFresh == null) {
+                throw new NyScriptNotFoundException(id)
             }
+            LOGGER.debug('Loading a fresh script from ' + id + '...')
+            source = processScript(scriptFresh)
         }
         if (!source.isValid()) {
             throw new NyScriptNotFoundException(id)
@@ -117,10 +118,50 @@ class QScriptsFolder implements QScriptMapper {
 
     @Override
     QSource reload(String id) throws NyScriptNotFoundException {
-        fileMap.remove(id)
-        QSource srcNew = map(id)
-        fileMap[id] = srcNew
-        srcNew
+        File scriptFile = findScriptFile(id)
+        if (scriptFile == null) {
+            fileMap.remove(id)
+            throw new NyScriptNotFoundException(id)
+        }
+        processScript(scriptFile)
+    }
+
+    @Override
+    Collection<File> startWatching() {
+        watched = true
+        [baseDir]
+    }
+
+    @Override
+    String fileChanged(File file, boolean deleted) {
+        if (!file.toPath().startsWith(baseDir.toPath())) {
+            return null
+        }
+
+        String id = scriptIdOf(file)
+        if (deleted) {
+            return fileMap.remove(id) != null ? id : null
+        }
+        if (visitor != null && !visitor.accepts(file.toPath())) {
+            return null
+        }
+        try {
+            processScript(file)
+            id
+        } catch (IOException ex) {
+            // file may have been deleted or being written, a later event will follow
+            LOGGER.warn("Unable to read changed script '{}'! [{}]", id, ex.message)
+            null
+        }
+    }
+
+    private File findScriptFile(String id) {
+        File scriptFile = baseDir.toPath().resolve(id + ConfigKeys.GROOVY_EXT).toFile()
+        if (scriptFile.exists()) {
+            return scriptFile
+        }
+        scriptFile = baseDir.toPath().resolve(id + ConfigKeys.NYQL_EXT).toFile()
+        scriptFile.exists() ? scriptFile : null
     }
 
     private void prettyPrintFiles() {
@@ -185,6 +226,11 @@ class QScriptsFolder implements QScriptMapper {
             FileVisitResult.SKIP_SUBTREE
         }
 
+        boolean accepts(Path file) {
+            isEndsWithAny(file.getFileName().toString().toLowerCase(), ConfigKeys.GROOVY_EXT, ConfigKeys.NYQL_EXT) &&
+                    check(file)
+        }
+
         private boolean check(Path file) {
             def relPath = startDir.relativize(file)
             if (inclusions.any { it.matches(relPath) }) {
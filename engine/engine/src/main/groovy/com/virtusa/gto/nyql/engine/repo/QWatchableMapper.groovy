@@ -0,0 +1,33 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import groovy.transform.CompileStatic
+
+/**
+ * Implemented by script mappers loading scripts from directories, which can be
+ * watched for changes without restarting.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+interface QWatchableMapper {
+
+    /**
+     * Marks this mapper as watched and returns all root directories to be watched.
+     * Once watched, mapper must not probe file system for scripts which are
+     * not already known, since all new scripts will be notified.
+     *
+     * @return root directories of scripts.
+     */
+    Collection<File> startWatching()
+
+    /**
+     * Notifies a change of a file inside one of the watched directories.
+     * Mapper must update its script mapping accordingly.
+     *
+     * @param file changed file.
+     * @param deleted true if the file has been deleted.
+     * @return id of the affected script, or null if the file is not a script of this mapper.
+     */
+    String fileChanged(File file, boolean deleted)
+
+}
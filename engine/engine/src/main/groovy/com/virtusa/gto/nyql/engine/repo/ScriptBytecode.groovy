@@ -0,0 +1,97 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+import org.codehaus.groovy.control.CompilationFailedException
+import org.codehaus.groovy.control.CompilationUnit
+import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.control.Phases
+import org.codehaus.groovy.control.SourceUnit
+import org.codehaus.groovy.tools.GroovyClass
+
+/**
+ * Bytecode of all classes generated from a single script, including its closures.
+ *
+ * @author iweerarathna
+ */
+@CompileStatic
+@PackageScope
+class ScriptBytecode {
+
+    /**
+     * Name of the script class.
+     */
+    String mainClass
+
+    /**
+     * Bytecode of all generated classes by their class names.
+     */
+    Map<String, byte[]> classes = new LinkedHashMap<>()
+
+    /**
+     * Compiles the given script source to bytecode without defining any class.
+     *
+     * @param codeSource script source.
+     * @param unitName name of the compilation unit. Script class will be named after this.
+     * @param config compiler configuration exclusive to this compilation.
+     * @param classLoader class loader to resolve referenced classes.
+     * @return compiled bytecode.
+     * @throws CompilationFailedException any compilation errors.
+     */
+    static ScriptBytecode compile(GroovyCodeSource codeSource, String unitName,
+                                  CompilerConfiguration config, GroovyClassLoader classLoader) throws CompilationFailedException {
+        CompilationUnit unit = new CompilationUnit(config, null, classLoader)
+        SourceUnit sourceUnit = unit.addSource(unitName, codeSource.scriptText)
+        unit.compile(Phases.CLASS_GENERATION)
+
+        ScriptBytecode bytecode = new ScriptBytecode(mainClass: sourceUnit.AST.classes[0].name)
+        for (Object item : unit.classes) {
+            GroovyClass groovyClass = (GroovyClass) item
+            bytecode.classes.put(groovyClass.name, groovyClass.bytes)
+        }
+        bytecode
+    }
+
+    /**
+     * Defines all classes of this script in a new class loader and returns the script class.
+     *
+     * @param parent parent class loader.
+     * @return script class.
+     */
+    Class define(ClassLoader parent) {
+        new BytecodeClassLoader(parent, classes).loadClass(mainClass)
+    }
+
+    /**
+     * Defines classes of a single script from bytecode. Classes of the script
+     * are looked up in this loader first, and all others are delegated to the parent.
+     */
+    private static class BytecodeClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classes
+
+        BytecodeClassLoader(ClassLoader parent, Map<String, byte[]> theClasses) {
+            super(parent)
+            classes = theClasses
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name)
+                if (clazz == null) {
+                    byte[] bytes = classes.get(name)
+                    if (bytes != null) {
+                        clazz = defineClass(name, bytes, 0, bytes.length)
+                    } else {
+                        return super.loadClass(name, resolve)
+                    }
+                }
+                if (resolve) {
+                    resolveClass(clazz)
+                }
+                clazz
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+
+/**
+ * Keeps track of scripts imported or run by each script, so that
+ * all scripts depending on a changed script can be found.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+@PackageScope
+class ScriptCallGraph {
+
+    private final Map<String, Set<String>> calls = new HashMap<>()
+
+    /**
+     * Replaces calls of the given script. Relative script ids will be resolved
+     * against the calling script.
+     *
+     * @param scriptId calling script id.
+     * @param calledIds script ids as written in the calling script.
+     */
+    synchronized void update(String scriptId, Collection<String> calledIds) {
+        Set<String> resolved = new HashSet<>()
+        for (String called : calledIds) {
+            resolved.add(QRepositoryImpl.resolveScriptId(called, scriptId))
+        }
+        calls.put(scriptId, resolved)
+    }
+
+    synchronized void remove(String scriptId) {
+        calls.remove(scriptId)
+    }
+
+    /**
+     * Returns all scripts which directly or transitively call any of given scripts.
+     *
+     * @param scriptIds called script ids.
+     * @return dependent script ids, excluding the given scripts.
+     */
+    synchronized Set<String> dependentsOf(Collection<String> scriptIds) {
+        Map<String, List<String>> callers = new HashMap<>()
+        for (Map.Entry<String, Set<String>> entry : calls.entrySet()) {
+            for (String called : entry.value) {
+                List<String> list = callers.get(called)
+                if (list == null) {
+                    list = []
+                    callers.put(called, list)
+                }
+                list.add(entry.key)
+            }
+        }
+
+        Set<String> dependents = new LinkedHashSet<>()
+        Deque<String> queue = new ArrayDeque<>(scriptIds)
+        while (!queue.isEmpty()) {
+            List<String> direct = callers.get(queue.poll())
+            if (direct == null) {
+                continue
+            }
+            for (String caller : direct) {
+                if (!scriptIds.contains(caller) && dependents.add(caller)) {
+                    queue.add(caller)
+                }
+            }
+        }
+        dependents
+    }
+}
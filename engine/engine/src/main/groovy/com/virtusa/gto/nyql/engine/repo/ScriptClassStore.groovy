@@ -0,0 +1,137 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import com.virtusa.gto.nyql.model.QSource
+import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+import org.codehaus.groovy.control.CompilationFailedException
+import org.codehaus.groovy.control.CompilerConfiguration
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Persistent store of compiled script classes in a local directory, so scripts
+ * need not to be recompiled across restarts unless they have been changed.
+ *
+ * Each entry is keyed by a hash of script name, script content, NyQL version,
+ * Groovy version, default imports and compilation mode. Therefore upgrading NyQL or changing imports
+ * will simply ignore all existing entries. The directory can be safely cleared at any time.
+ *
+ * @author iweerarathna
+ */
+@CompileStatic
+@PackageScope
+class ScriptClassStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptClassStore)
+
+    private static final int MAGIC = 0x4E59514C
+    private static final String EXT = '.nyclass'
+
+    private final Path directory
+    private final NyGroovyClassLoader gcl
+    private final String environmentKey
+    private final Set<String> loadedIds = ConcurrentHashMap.newKeySet()
+
+    ScriptClassStore(Path storeDir, NyGroovyClassLoader classLoader, String[] defaultImports, boolean staticDsl) {
+        directory = storeDir
+        gcl = classLoader
+        environmentKey = ScriptDigest.environmentKey(GroovySystem.getVersion(),
+                defaultImports != null ? defaultImports.join(',') : '', staticDsl ? 'static' : 'dynamic')
+
+        Files.createDirectories(directory)
+        LOGGER.info('Compiled scripts will be persisted in ' + directory.toAbsolutePath())
+    }
+
+    /**
+     * Loads the class of the given script from the store, or compiles and stores it
+     * if not available. Loaded class is registered in source cache of the class loader.
+     *
+     * @param source script source.
+     * @param config compiler configuration exclusive to this compilation.
+     * @return script class.
+     * @throws CompilationFailedException any compilation errors.
+     */
+    Class load(QSource source, CompilerConfiguration config) throws CompilationFailedException {
+        GroovyCodeSource codeSource = source.codeSource
+        Path file = directory.resolve(ScriptDigest.hash(environmentKey, codeSource.name, codeSource.scriptText) + EXT)
+
+        if (Files.exists(file)) {
+            try {
+                ScriptBytecode stored = read(file)
+                LOGGER.trace('Script {} loaded from class store.', source.id)
+                Class clazz = gcl.registerClass(codeSource.name, stored.define(gcl))
+                loadedIds.add(source.id)
+                return clazz
+            } catch (Exception ex) {
+                LOGGER.warn("Ignoring corrupted class store entry of script '" + source.id + "'! [" + ex.message + ']')
+                Files.deleteIfExists(file)
+            }
+        }
+
+        loadedIds.remove(source.id)
+        ScriptBytecode compiled = ScriptBytecode.compile(codeSource, codeSource.name, config, gcl)
+        Class clazz = gcl.registerClass(codeSource.name, compiled.define(gcl))
+        try {
+            write(file, compiled)
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to persist compiled script '" + source.id + "'! [" + ex.message + ']')
+        }
+        clazz
+    }
+
+    /**
+     * Returns ids of scripts whose classes were last loaded from the store without compiling.
+     *
+     * @return loaded script ids.
+     */
+    Set<String> loadedScriptIds() {
+        Collections.unmodifiableSet(loadedIds)
+    }
+
+    private static ScriptBytecode read(Path file) throws IOException {
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file))).withCloseable { DataInputStream input ->
+            if (input.readInt() != MAGIC) {
+                throw new IOException('Not a class store entry!')
+            }
+            ScriptBytecode stored = new ScriptBytecode(mainClass: input.readUTF())
+            int count = input.readInt()
+            for (int i = 0; i < count; i++) {
+                String name = input.readUTF()
+                byte[] bytes = new byte[input.readInt()]
+                input.readFully(bytes)
+                stored.classes.put(name, bytes)
+            }
+            stored
+        }
+    }
+
+    private void write(Path file, ScriptBytecode stored) throws IOException {
+        Path tmp = Files.createTempFile(directory, 'nyql', '.tmp')
+        try {
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))).withCloseable { DataOutputStream out ->
+                out.writeInt(MAGIC)
+                out.writeUTF(stored.mainClass)
+                out.writeInt(stored.classes.size())
+                for (Map.Entry<String, byte[]> entry : stored.classes.entrySet()) {
+                    out.writeUTF(entry.key)
+                    out.writeInt(entry.value.length)
+                    out.write(entry.value)
+                }
+            }
+
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE)
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING)
+            }
+        } finally {
+            Files.deleteIfExists(tmp)
+        }
+    }
+}
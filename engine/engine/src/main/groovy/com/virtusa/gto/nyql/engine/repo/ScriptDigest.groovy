@@ -0,0 +1,67 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+
+/**
+ * Hashes scripts together with the environment they were compiled or analysed in,
+ * so persisted entries of a script are ignored once either of them changes.
+ *
+ * @author iweerarathna
+ */
+@CompileStatic
+@PackageScope
+final class ScriptDigest {
+
+    private static final String BUILD_INFO = 'nyql_buildinfo.properties'
+
+    private ScriptDigest() {}
+
+    /**
+     * Returns the key of current environment made of NyQL version and the given parts.
+     *
+     * @param parts other environment parts affecting persisted entries.
+     * @return environment key.
+     */
+    static String environmentKey(String... parts) {
+        ([readNyQLVersion()] + (parts as List<String>)).join('|')
+    }
+
+    /**
+     * Returns the SHA-256 hash of a script in the given environment.
+     *
+     * @param environmentKey environment key.
+     * @param scriptName name or id of the script.
+     * @param scriptText script content.
+     * @return hash as a hex string.
+     */
+    static String hash(String environmentKey, String scriptName, String scriptText) {
+        MessageDigest digest = MessageDigest.getInstance('SHA-256')
+        digest.update(environmentKey.getBytes(StandardCharsets.UTF_8))
+        digest.update((byte) 0)
+        digest.update(scriptName.getBytes(StandardCharsets.UTF_8))
+        digest.update((byte) 0)
+        digest.update(scriptText.getBytes(StandardCharsets.UTF_8))
+        digest.digest().encodeHex().toString()
+    }
+
+    /**
+     * Returns the NyQL version including its build time, so that each build is distinct.
+     *
+     * @return NyQL version.
+     */
+    static String readNyQLVersion() {
+        InputStream inputStream = ScriptDigest.classLoader.getResourceAsStream(BUILD_INFO)
+        if (inputStream == null) {
+            return 'unknown'
+        }
+        inputStream.withCloseable {
+            Properties properties = new Properties()
+            properties.load(inputStream)
+            properties.getProperty('nyql.version', 'unknown') + '@' + properties.getProperty('build.time', '')
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import com.virtusa.gto.nyql.exceptions.NyException
+import com.virtusa.gto.nyql.model.NyBaseScript
+import com.virtusa.gto.nyql.model.QSource
+import groovy.transform.CompileStatic
+import org.codehaus.groovy.control.CompilationFailedException
+import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.control.customizers.ImportCustomizer
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.util.jar.JarEntry
+import java.util.jar.JarOutputStream
+
+/**
+ * Compiles scripts ahead of time into a jar having all script classes and an index
+ * mapping script ids to their classes. Such a jar can be loaded at runtime using
+ * the 'precompiled' script mapper without ever invoking the groovy compiler.
+ *
+ * @author iweerarathna
+ */
+@CompileStatic
+class ScriptPrecompiler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptPrecompiler)
+
+    /**
+     * Location of the script index inside the jar.
+     */
+    static final String INDEX_PATH = 'META-INF/nyql/scripts.index'
+
+    /**
+     * Index key having the NyQL version which the scripts were compiled with.
+     */
+    static final String VERSION_KEY = '@nyqlVersion'
+
+    private static final String CLASS_PREFIX = 'nyql_'
+    private static final String CLASS_EXT = '.class'
+
+    private final String[] defaultImports
+    private final GroovyClassLoader classLoader
+
+    /**
+     * Whether to validate cache declarations of scripts before compiling.
+     */
+    boolean validate = true
+
+    /**
+     * Whether to compile scripts statically. Scripts which cannot be compiled
+     * statically will be compiled dynamically, same as at runtime.
+     */
+    boolean staticDsl = false
+
+    private final Set<String> dynamicScripts = new TreeSet<>()
+
+    ScriptPrecompiler(String[] theDefaultImports, ClassLoader parentClassLoader) {
+        defaultImports = theDefaultImports
+        classLoader = new GroovyClassLoader(parentClassLoader)
+    }
+
+    /**
+     * Compiles all given scripts and writes them to the given jar file.
+     *
+     * @param sources scripts to compile.
+     * @param outputJar output jar file. Will be overwritten if exists.
+     * @return number of scripts compiled.
+     * @throws NyException when validation or compilation fails.
+     */
+    int precompile(Collection<QSource> sources, File outputJar) throws NyException {
+        if (validate) {
+            new ScriptCacheValidator(null).check(sources)
+        }
+
+        Properties index = new Properties()
+        index.setProperty(VERSION_KEY, ScriptDigest.readNyQLVersion())
+        Set<String> classNames = new HashSet<>()
+        dynamicScripts.clear()
+        List<String> failed = []
+
+        if (outputJar.parentFile != null) {
+            outputJar.parentFile.mkdirs()
+        }
+        new JarOutputStream(new BufferedOutputStream(new FileOutputStream(outputJar))).withCloseable { JarOutputStream jar ->
+            for (QSource source : sources) {
+                String unitName = uniqueName(source.id, classNames)
+                ScriptBytecode bytecode
+                try {
+                    LOGGER.debug('  Compiling: ' + source.id)
+                    bytecode = compile(source, unitName)
+                } catch (CompilationFailedException ex) {
+                    LOGGER.error("Compilation error in script '${source.id}'", ex)
+                    failed.add(source.id)
+                    continue
+                }
+
+                for (Map.Entry<String, byte[]> entry : bytecode.classes.entrySet()) {
+                    jar.putNextEntry(new JarEntry(entry.key.replace('.', '/') + CLASS_EXT))
+                    jar.write(entry.value)
+                    jar.closeEntry()
+                }
+                index.setProperty(source.id, bytecode.mainClass)
+            }
+
+            jar.putNextEntry(new JarEntry(INDEX_PATH))
+            index.store(jar, 'NyQL precompiled scripts')
+            jar.closeEntry()
+        }
+
+        if (!failed.isEmpty()) {
+            outputJar.delete()
+            throw new NyException("Compilation error in ${failed.size()} script(s)! [${failed.join(', ')}]")
+        }
+        LOGGER.info("Precompiled ${sources.size()} script(s) into ${outputJar}")
+        sources.size()
+    }
+
+    /**
+     * Returns ids of scripts compiled dynamically in the last run, since they
+     * could not be compiled statically.
+     *
+     * @return dynamically compiled script ids.
+     */
+    Set<String> getDynamicScripts() {
+        Collections.unmodifiableSet(dynamicScripts)
+    }
+
+    /**
+     * Derives a unique class name for the script, since scripts having
+     * same file name in different directories would otherwise clash.
+     */
+    private static String uniqueName(String scriptId, Set<String> used) {
+        String base = CLASS_PREFIX + scriptId.replaceAll('[^A-Za-z0-9_]', '_')
+        String name = base
+        int suffix = 1
+        while (!used.add(name)) {
+            name = base + '_' + (suffix++)
+        }
+        name
+    }
+
+    private ScriptBytecode compile(QSource source, String unitName) throws CompilationFailedException {
+        if (staticDsl) {
+            try {
+                return ScriptBytecode.compile(source.codeSource, unitName, createCompilerConfigs(true), classLoader)
+            } catch (CompilationFailedException ex) {
+                LOGGER.warn("Script '${source.id}' cannot be compiled statically, hence compiled dynamically. " +
+                        "[${Caching.staticFailureReason(ex)}]")
+                dynamicScripts.add(source.id)
+            }
+        }
+        ScriptBytecode.compile(source.codeSource, unitName, createCompilerConfigs(false), classLoader)
+    }
+
+    private CompilerConfiguration createCompilerConfigs(boolean staticMode) {
+        CompilerConfiguration compilerConfigurations = new CompilerConfiguration()
+        compilerConfigurations.scriptBaseClass = NyBaseScript.name
+
+        if (defaultImports != null) {
+            ImportCustomizer importCustomizer = new ImportCustomizer()
+            importCustomizer.addImports(defaultImports)
+            compilerConfigurations.addCompilationCustomizers(importCustomizer)
+        }
+        if (staticMode) {
+            Caching.addStaticDslCustomizers(compilerConfigurations)
+        }
+        compilerConfigurations
+    }
+}
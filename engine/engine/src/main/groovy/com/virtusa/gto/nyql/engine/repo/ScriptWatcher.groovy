@@ -0,0 +1,158 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.nio.file.ClosedWatchServiceException
+import java.nio.file.FileSystems
+import java.nio.file.FileVisitResult
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.SimpleFileVisitor
+import java.nio.file.StandardWatchEventKinds
+import java.nio.file.WatchEvent
+import java.nio.file.WatchKey
+import java.nio.file.WatchService
+import java.nio.file.attribute.BasicFileAttributes
+import java.util.concurrent.TimeUnit
+
+/**
+ * Watches script directories recursively and notifies changed files in batches.
+ * Events are debounced, so that a burst of changes (ex: saving several files or
+ * checking out a branch) results in a single notification once the file system
+ * has been quiet for the given duration.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+@PackageScope
+class ScriptWatcher implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptWatcher)
+
+    /**
+     * Receives debounced file changes.
+     */
+    static interface Listener {
+
+        /**
+         * @param changes changed files, mapped to true if the file has been deleted.
+         */
+        void filesChanged(Map<File, Boolean> changes)
+    }
+
+    private final WatchService watchService
+    private final Map<WatchKey, Path> keys = new HashMap<>()
+    private final long debounceMs
+    private final Listener listener
+    private final Thread thread
+
+    ScriptWatcher(Collection<File> directories, long theDebounceMs, Listener theListener) {
+        debounceMs = theDebounceMs
+        listener = theListener
+        watchService = FileSystems.getDefault().newWatchService()
+        for (File dir : directories) {
+            registerAll(dir.toPath())
+        }
+
+        thread = new Thread({ processEvents() } as Runnable, 'nyql-script-watcher')
+        thread.setDaemon(true)
+        thread.start()
+        LOGGER.info('Watching script directories for changes: {}', directories)
+    }
+
+    private void registerAll(Path root) {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE)
+                keys.put(key, dir)
+                FileVisitResult.CONTINUE
+            }
+        })
+    }
+
+    private void processEvents() {
+        Map<File, Boolean> pending = new LinkedHashMap<>()
+        try {
+            while (true) {
+                WatchKey key = pending.isEmpty() ? watchService.take() : watchService.poll(debounceMs, TimeUnit.MILLISECONDS)
+                if (key == null) {
+                    // quiet period elapsed
+                    flush(pending)
+                    continue
+                }
+
+                Path dir = keys.get(key)
+                if (dir != null) {
+                    collectEvents(key, dir, pending)
+                }
+                if (!key.reset()) {
+                    keys.remove(key)
+                }
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt()
+        } catch (ClosedWatchServiceException ignored) {
+            LOGGER.debug('Script watcher stopped.')
+        }
+    }
+
+    private void collectEvents(WatchKey key, Path dir, Map<File, Boolean> pending) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                LOGGER.warn('Script watcher missed some file events! Changed scripts may need to be recompiled manually.')
+                continue
+            }
+
+            Path child = dir.resolve((Path) event.context())
+            boolean deleted = event.kind() == StandardWatchEventKinds.ENTRY_DELETE
+            if (!deleted && Files.isDirectory(child)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    try {
+                        registerAll(child)
+                        registerExisting(child, pending)
+                    } catch (IOException ex) {
+                        LOGGER.warn('Unable to watch new directory ' + child + '! [' + ex.message + ']')
+                    }
+                }
+                continue
+            }
+            pending.put(child.toFile(), deleted)
+        }
+    }
+
+    /**
+     * Files may have been created in a new directory before it got registered.
+     */
+    private static void registerExisting(Path dir, Map<File, Boolean> pending) {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                pending.put(file.toFile(), false)
+                FileVisitResult.CONTINUE
+            }
+        })
+    }
+
+    private void flush(Map<File, Boolean> pending) {
+        Map<File, Boolean> changes = new LinkedHashMap<>(pending)
+        pending.clear()
+        try {
+            listener.filesChanged(changes)
+        } catch (Exception ex) {
+            LOGGER.error('Failed to apply script changes!', ex)
+        }
+    }
+
+    @Override
+    void close() throws IOException {
+        watchService.close()
+        thread.interrupt()
+    }
+}
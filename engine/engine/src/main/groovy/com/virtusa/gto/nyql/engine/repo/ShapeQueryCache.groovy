@@ -0,0 +1,236 @@
+package com.virtusa.gto.nyql.engine.repo
+
+import com.virtusa.gto.nyql.QResultProxy
+import com.virtusa.gto.nyql.model.QScript
+import com.virtusa.gto.nyql.model.QScriptList
+import com.virtusa.gto.nyql.model.units.AParam
+import groovy.transform.CompileStatic
+import groovy.transform.EqualsAndHashCode
+import groovy.transform.PackageScope
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Second level generated query cache for scripts whose generated query depends on
+ * a set of session variables. Those scripts declare the affecting variable names using
+ * <code>@Field do_cache_shape = ['var1', 'var2']</code>, and generated queries are cached
+ * against the script id plus values of declared variables.
+ *
+ * Cache is bounded by both number of entries and approximate size of cached queries,
+ * and least recently used entries are evicted when any of the limits exceeded.
+ *
+ * @author iweerarathna
+ */
+@CompileStatic
+class ShapeQueryCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShapeQueryCache)
+
+    private static final int ENTRY_OVERHEAD = 128
+    private static final int PARAM_OVERHEAD = 48
+
+    private final int maxEntries
+    private final long maxBytes
+
+    private final LinkedHashMap<ShapeKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true)
+    private final Object lock = new Object()
+    private long currentBytes = 0
+
+    private final AtomicLong hits = new AtomicLong(0)
+    private final AtomicLong misses = new AtomicLong(0)
+    private final AtomicLong evictions = new AtomicLong(0)
+
+    ShapeQueryCache(int theMaxEntries, long theMaxBytes) {
+        maxEntries = theMaxEntries
+        maxBytes = theMaxBytes
+    }
+
+    /**
+     * Returns the cached script for the given shape, or null if not cached.
+     *
+     * @param key shape key.
+     * @return cached script instance.
+     */
+    QScript get(ShapeKey key) {
+        Entry entry
+        synchronized (lock) {
+            entry = entries.get(key)
+        }
+        if (entry == null) {
+            misses.incrementAndGet()
+            return null
+        }
+        hits.incrementAndGet()
+        entry.script
+    }
+
+    /**
+     * Adds a script instance to the cache. Script must be already dehydrated.
+     *
+     * @param key shape key.
+     * @param script script to cache.
+     */
+    void put(ShapeKey key, QScript script) {
+        long size = estimateSize(script)
+        if (size > maxBytes) {
+            LOGGER.debug('Generated query of script {} is too large to cache. [{} bytes]', key.scriptId, size)
+            return
+        }
+
+        synchronized (lock) {
+            Entry prev = entries.put(key, new Entry(script, size))
+            if (prev != null) {
+                currentBytes -= prev.size
+            }
+            currentBytes += size
+
+            Iterator<Map.Entry<ShapeKey, Entry>> iterator = entries.entrySet().iterator()
+            while ((entries.size() > maxEntries || currentBytes > maxBytes) && iterator.hasNext()) {
+                Map.Entry<ShapeKey, Entry> eldest = iterator.next()
+                iterator.remove()
+                currentBytes -= eldest.value.size
+                evictions.incrementAndGet()
+            }
+        }
+    }
+
+    /**
+     * Removes all cached shapes of the given script.
+     *
+     * @param scriptId script id.
+     */
+    void invalidate(String scriptId) {
+        synchronized (lock) {
+            Iterator<Map.Entry<ShapeKey, Entry>> iterator = entries.entrySet().iterator()
+            while (iterator.hasNext()) {
+                Map.Entry<ShapeKey, Entry> entry = iterator.next()
+                if (entry.key.scriptId == scriptId) {
+                    iterator.remove()
+                    currentBytes -= entry.value.size
+                }
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (lock) {
+            entries.clear()
+            currentBytes = 0
+        }
+    }
+
+    int size() {
+        synchronized (lock) {
+            entries.size()
+        }
+    }
+
+    long getBytes() {
+        synchronized (lock) {
+            currentBytes
+        }
+    }
+
+    long getHits() {
+        hits.get()
+    }
+
+    long getMisses() {
+        misses.get()
+    }
+
+    long getEvictions() {
+        evictions.get()
+    }
+
+    @Override
+    String toString() {
+        'ShapeQueryCache{entries=' + size() + ', bytes=' + getBytes() + ', hits=' + getHits() +
+                ', misses=' + getMisses() + ', evictions=' + getEvictions() + '}'
+    }
+
+    /**
+     * Approximate retained size of a cached script. Only query strings and
+     * parameters are accounted since those dominate.
+     *
+     * @param script script instance.
+     * @return approximate size in bytes.
+     */
+    @PackageScope
+    static long estimateSize(QScript script) {
+        long size = ENTRY_OVERHEAD
+        if (script instanceof QScriptList) {
+            List<QScript> scripts = ((QScriptList) script).scripts
+            if (scripts != null) {
+                for (QScript inner : scripts) {
+                    size += estimateSize(inner)
+                }
+            }
+        }
+
+        QResultProxy proxy = script.proxy
+        if (proxy != null) {
+            size += (proxy.query != null ? proxy.query.length() * 2L : 0L)
+            List<AParam> params = proxy.orderedParameters
+            if (params != null) {
+                size += params.size() * PARAM_OVERHEAD
+            }
+        }
+        size
+    }
+
+    private static class Entry {
+        private final QScript script
+        private final long size
+
+        Entry(QScript theScript, long theSize) {
+            script = theScript
+            size = theSize
+        }
+    }
+
+    /**
+     * Cache key made of script id and values of its shape variables in declared order.
+     */
+    @CompileStatic
+    @EqualsAndHashCode
+    static class ShapeKey {
+        final String scriptId
+        final List<Object> values
+
+        ShapeKey(String theScriptId, List<Object> theValues) {
+            scriptId = theScriptId
+            values = theValues
+        }
+
+        /**
+         * Creates a key by reading declared shape variables from the session variables.
+         *
+         * @param scriptId script id.
+         * @param shapeVars declared shape variable names.
+         * @param sessionVariables session variables.
+         * @return shape key.
+         */
+        static ShapeKey of(String scriptId, List<String> shapeVars, Map<String, Object> sessionVariables) {
+            List<Object> values = new ArrayList<>(shapeVars.size())
+            for (String name : shapeVars) {
+                Object value = sessionVariables != null ? sessionVariables.get(name) : null
+                // copy collections so that later modifications by caller won't affect the key
+                if (value instanceof Collection) {
+                    value = new ArrayList<Object>((Collection) value)
+                } else if (value instanceof Map) {
+                    value = new LinkedHashMap<Object, Object>((Map) value)
+                }
+                values.add(value)
+            }
+            new ShapeKey(scriptId, values)
+        }
+
+        @Override
+        String toString() {
+            scriptId + values
+        }
+    }
+}
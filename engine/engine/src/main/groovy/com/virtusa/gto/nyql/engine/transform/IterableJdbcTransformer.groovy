@@ -27,6 +27,10 @@ class IterableJdbcTransformer implements QJdbcResultTransformer<Iterable<NyQLRes
 
     @Override
     Iterable<NyQLResult> apply(ResultSet resultSet) {
-        return new NyJdbcIterable(resultSet, jdbcExecutor, pagedScript)
+        NyJdbcIterable iterable = new NyJdbcIterable(resultSet, jdbcExecutor, pagedScript)
+        if (pagedScript.prefetchPages > 0) {
+            return new PrefetchingJdbcIterable(iterable, pagedScript.prefetchPages)
+        }
+        return iterable
     }
 }
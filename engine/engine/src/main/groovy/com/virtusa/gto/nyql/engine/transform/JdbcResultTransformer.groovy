@@ -1,6 +1,7 @@
 package com.virtusa.gto.nyql.engine.transform
 
 import com.virtusa.gto.nyql.engine.impl.NyQLResult
+import com.virtusa.gto.nyql.engine.impl.NyQLRow
 import groovy.transform.CompileStatic
 
 @java.lang.SuppressWarnings('JdbcResultSetReference')
@@ -16,17 +17,19 @@ class JdbcResultTransformer implements QJdbcResultTransformer<List<Map<String, O
         try {
             ResultSetMetaData metaData = resultSet.getMetaData()
             int cc = metaData.columnCount
-            Map<Integer, String> cols = [:] as LinkedHashMap
+            List<String> cols = new ArrayList<>(cc)
             for (int i = 1; i <= cc; i++) {
-                cols.put(i, metaData.getColumnLabel(i))
+                cols.add(metaData.getColumnLabel(i))
             }
 
+            // all rows share the same column index
+            NyQLRow.Schema schema = new NyQLRow.Schema(cols)
             NyQLResult nyQLResult = new NyQLResult()
-            nyQLResult.setFetchedColumns(cols.values());
+            nyQLResult.setFetchedColumns(schema.columnList)
             while (resultSet.next()) {
-                Map<String, Object> row = [:]
-                for (int i = 1; i <= cc; i++) {
-                    row.put(cols[i], resultSet.getObject(i))
+                NyQLRow row = new NyQLRow(schema)
+                for (int i = 0; i < cc; i++) {
+                    row.setValueAt(schema.slotOf(i), resultSet.getObject(i + 1))
                 }
                 nyQLResult.add(row)
             }
@@ -1,6 +1,7 @@
 package com.virtusa.gto.nyql.engine.transform
 
 import com.virtusa.gto.nyql.engine.impl.NyQLResult
+import com.virtusa.gto.nyql.engine.impl.NyQLRow
 import com.virtusa.gto.nyql.engine.impl.QJdbcExecutor
 import com.virtusa.gto.nyql.model.QPagedScript
 import groovy.transform.CompileStatic
@@ -10,6 +11,8 @@ import org.slf4j.LoggerFactory
 
 import java.sql.ResultSet
 import java.sql.ResultSetMetaData
+import java.sql.SQLException
+import java.sql.Statement
 /**
  * @author iweerarathna
  */
@@ -23,7 +26,7 @@ class NyJdbcIterable implements Iterable<NyQLResult>, Iterator<NyQLResult>, Clos
     private QPagedScript script
 
     private int columnCount = 0
-    private Map<Integer, String> cols = [:]
+    private NyQLRow.Schema schema = null
     private boolean started = false
     private boolean closed = false
 
@@ -41,6 +44,9 @@ class NyJdbcIterable implements Iterable<NyQLResult>, Iterator<NyQLResult>, Clos
 
     @Override
     void close() throws IOException {
+        if (closed) {
+            return
+        }
         LOGGER.debug('Closing jdbc pagination iterator.')
         QJdbcExecutor.onCloseInvoke(script, resultSet.statement)
 
@@ -60,6 +66,23 @@ class NyJdbcIterable implements Iterable<NyQLResult>, Iterator<NyQLResult>, Clos
         closed = true
     }
 
+    /**
+     * Cancels the running statement of this result, if any, from another thread.
+     * Unlike interrupting the reading thread, this leaves the connection usable.
+     */
+    @PackageScope
+    void cancel() {
+        ResultSet rs = resultSet
+        try {
+            Statement statement = rs?.statement
+            if (statement != null && !statement.isClosed()) {
+                statement.cancel()
+            }
+        } catch (SQLException ex) {
+            LOGGER.debug('Failed to cancel paginated statement! [' + ex.message + ']')
+        }
+    }
+
     @Override
     synchronized boolean hasNext() {
         return !closed
@@ -74,14 +97,14 @@ class NyJdbcIterable implements Iterable<NyQLResult>, Iterator<NyQLResult>, Clos
         int ps = script.pageSize
         int curr = 0
 
-        NyQLResult nyQLResult = new NyQLResult()
-        nyQLResult.setFetchedColumns(cols.values())
+        NyQLResult nyQLResult = new NyQLResult(ps)
+        nyQLResult.setFetchedColumns(schema.columnList)
         boolean limitReached = false
 
         while (resultSet.next()) {
-            Map<String, Object> row = [:]
-            for (int i = 1; i <= columnCount; i++) {
-                row.put(cols[i], resultSet.getObject(i))
+            NyQLRow row = new NyQLRow(schema)
+            for (int i = 0; i < columnCount; i++) {
+                row.setValueAt(schema.slotOf(i), resultSet.getObject(i + 1))
             }
             nyQLResult.add(row)
             curr++
@@ -101,13 +124,14 @@ class NyJdbcIterable implements Iterable<NyQLResult>, Iterator<NyQLResult>, Clos
     }
 
     private NyJdbcIterable start() {
-        if (columnCount == 0) {
+        if (schema == null) {
             ResultSetMetaData metaData = resultSet.getMetaData()
             columnCount = metaData.columnCount
+            List<String> cols = new ArrayList<>(columnCount)
             for (int i = 1; i <= columnCount; i++) {
-                cols.put(i, metaData.getColumnLabel(i))
+                cols.add(metaData.getColumnLabel(i))
             }
-
+            schema = new NyQLRow.Schema(cols)
         }
         started = true
         return this
@@ -0,0 +1,131 @@
+package com.virtusa.gto.nyql.engine.transform
+
+import com.virtusa.gto.nyql.engine.impl.NyQLResult
+import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+/**
+ * Paginated result which reads pages ahead of the consumer using a dedicated reader thread.
+ * Reader blocks when the configured number of pages are waiting to be consumed.
+ *
+ * Any exception thrown while reading will be rethrown to the consumer from {@link #next()}.
+ * Closing never interrupts the reader, because some drivers close the connection on
+ * interrupts. Instead the running statement is cancelled and the reader stops between pages.
+ *
+ * @author iweerarathna
+ */
+@CompileStatic
+class PrefetchingJdbcIterable implements Iterable<NyQLResult>, Iterator<NyQLResult>, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrefetchingJdbcIterable)
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger(0)
+    private static final Object END = new Object()
+    private static final long OFFER_WAIT_MS = 100L
+
+    private final NyJdbcIterable source
+    private final BlockingQueue<Object> pages
+    private final Thread reader
+
+    private volatile boolean cancelled = false
+    private Object nextItem = null
+    private boolean finished = false
+
+    @PackageScope
+    PrefetchingJdbcIterable(NyJdbcIterable sourceIterable, int prefetchPages) {
+        source = sourceIterable
+        pages = new ArrayBlockingQueue<>(prefetchPages)
+        reader = new Thread({ readPages() } as Runnable, 'nyql-page-prefetch-' + THREAD_ID.incrementAndGet())
+        reader.setDaemon(true)
+        reader.start()
+    }
+
+    private void readPages() {
+        Object last = END
+        try {
+            Iterator<NyQLResult> iterator = source.iterator()
+            while (!cancelled && iterator.hasNext()) {
+                offer(iterator.next())
+            }
+        } catch (InterruptedException ignored) {
+            LOGGER.debug('Page prefetching interrupted.')
+        } catch (Throwable ex) {
+            last = ex
+        } finally {
+            try {
+                source.close()
+            } catch (Throwable ex) {
+                LOGGER.warn('Failed to close paginated result! [' + ex.message + ']')
+            }
+
+            try {
+                offer(last)
+            } catch (InterruptedException ignored) {
+                LOGGER.debug('Page prefetching interrupted.')
+            }
+        }
+    }
+
+    /**
+     * Waits until there is space for the given item, or the consumer closes this iterator.
+     */
+    private void offer(Object item) throws InterruptedException {
+        while (!cancelled) {
+            if (pages.offer(item, OFFER_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                return
+            }
+        }
+    }
+
+    @Override
+    Iterator<NyQLResult> iterator() {
+        this
+    }
+
+    @Override
+    boolean hasNext() {
+        if (finished) {
+            return false
+        }
+        if (nextItem == null) {
+            nextItem = pages.take()
+        }
+        if (nextItem.is(END)) {
+            finished = true
+            return false
+        }
+        true
+    }
+
+    @Override
+    NyQLResult next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException()
+        }
+
+        Object item = nextItem
+        nextItem = null
+        if (item instanceof Throwable) {
+            finished = true
+            throw (Throwable) item
+        }
+        (NyQLResult) item
+    }
+
+    @Override
+    void close() throws IOException {
+        LOGGER.debug('Closing prefetching pagination iterator.')
+        finished = true
+        if (!cancelled) {
+            cancelled = true
+            source.cancel()
+            pages.clear()
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.virtusa.gto.nyql.engine.transform
+
+import com.virtusa.gto.nyql.engine.impl.NyQLRow
+import com.virtusa.gto.nyql.model.RowConsumer
+import groovy.transform.CompileStatic
+
+@java.lang.SuppressWarnings('JdbcResultSetReference')
+import java.sql.ResultSet
+import java.sql.ResultSetMetaData
+/**
+ * Forwards each row of the result set to a consumer without retaining them,
+ * and returns the number of rows consumed.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+class StreamingJdbcTransformer implements QJdbcResultTransformer<Long> {
+
+    private final RowConsumer consumer
+
+    StreamingJdbcTransformer(RowConsumer rowConsumer) {
+        consumer = rowConsumer
+    }
+
+    @Override
+    Long apply(ResultSet resultSet) {
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData()
+            int cc = metaData.columnCount
+            List<String> cols = new ArrayList<>(cc)
+            for (int i = 1; i <= cc; i++) {
+                cols.add(metaData.getColumnLabel(i))
+            }
+
+            // same row type as materialized results, sharing one column index
+            NyQLRow.Schema schema = new NyQLRow.Schema(cols)
+            long count = 0
+            while (resultSet.next()) {
+                NyQLRow row = new NyQLRow(schema)
+                for (int i = 0; i < cc; i++) {
+                    row.setValueAt(schema.slotOf(i), resultSet.getObject(i + 1))
+                }
+                consumer.accept(row)
+                count++
+            }
+            return count
+
+        } finally {
+            resultSet.close()
+        }
+    }
+
+    @Override
+    long convertUpdateResult(long val) {
+        val
+    }
+}
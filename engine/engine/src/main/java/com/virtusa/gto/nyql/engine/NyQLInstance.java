@@ -15,6 +15,8 @@ import com.virtusa.gto.nyql.model.QExecutor;
 import com.virtusa.gto.nyql.model.QPagedScript;
 import com.virtusa.gto.nyql.model.QScript;
 import com.virtusa.gto.nyql.model.QSession;
+import com.virtusa.gto.nyql.model.QStreamedScript;
+import com.virtusa.gto.nyql.model.RowConsumer;
 import groovy.json.JsonOutput;
 import groovy.json.JsonSlurper;
 import groovy.transform.CompileStatic;
@@ -24,9 +26,14 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 /**
  * @author IWEERARATHNA
  */
@@ -222,6 +229,71 @@ public class NyQLInstance implements NyQLInstanceMXBean, AutoCloseable {
         }
     }
 
+    /**
+     * Executes a given script asynchronously without any variables.
+     *
+     * @param scriptName name of the script to be run.
+     * @return a future completing with the result of the script execution.
+     * @see #executeAsync(String, Map)
+     */
+    @CompileStatic
+    public <T> CompletableFuture<T> executeAsync(String scriptName) {
+        return executeAsync(scriptName, EMPTY_MAP);
+    }
+
+    /**
+     * <p>
+     * Executes a given script asynchronously using given set of variables. Use this to
+     * run independent scripts concurrently, instead of running them one after the other.
+     * </p>
+     * <p>
+     * Scripts run in virtual threads when the JVM supports them, or otherwise in a bounded
+     * pool. In both cases, number of scripts running at once is limited to the connection
+     * pool size of the default executor, unless <code>async.maxConcurrency</code> has been configured.
+     * </p>
+     *
+     * @param scriptName name of the script to be run.
+     * @param data set of variables to be passed to the script run. Must not be modified until completion.
+     * @return a future completing with the result of the script execution, or with
+     *          the exception thrown while parsing or executing.
+     */
+    @CompileStatic
+    public <T> CompletableFuture<T> executeAsync(String scriptName, Map<String, Object> data) {
+        return configurations.asyncRunner().submit(() -> this.<T>execute(scriptName, data));
+    }
+
+    /**
+     * Executes a given script asynchronously in the given executor, still limiting the number of
+     * scripts running at once as in {@link #executeAsync(String, Map)}.
+     *
+     * @param scriptName name of the script to be run.
+     * @param data set of variables to be passed to the script run. Must not be modified until completion.
+     * @param executor executor to run the script.
+     * @return a future completing with the result of the script execution.
+     */
+    @CompileStatic
+    public <T> CompletableFuture<T> executeAsync(String scriptName, Map<String, Object> data, Executor executor) {
+        return configurations.asyncRunner().submit(() -> this.<T>execute(scriptName, data), executor);
+    }
+
+    /**
+     * Executes all given scripts concurrently using the same set of variables.
+     *
+     * @param scriptNames names of the scripts to be run.
+     * @param data set of variables to be passed to each script run. Must not be modified until completion.
+     * @return a future completing with results of all scripts in the given order, or exceptionally
+     *          once all scripts are done, if any of them failed.
+     */
+    @CompileStatic
+    public CompletableFuture<List<Object>> executeAllAsync(List<String> scriptNames, Map<String, Object> data) {
+        List<CompletableFuture<Object>> futures = new ArrayList<>(scriptNames.size());
+        for (String scriptName : scriptNames) {
+            futures.add(executeAsync(scriptName, data));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(done -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
     /**
      * Executes the given <code>select</code> query and fetches subset of result each has rows size of
      * <code>pageSize</code>. This query will run only once in the server and the result rows are
@@ -245,7 +317,32 @@ public class NyQLInstance implements NyQLInstanceMXBean, AutoCloseable {
     @SuppressWarnings("unchecked")
     @CompileStatic
     public Iterable<NyQLResult> paginate(String scriptName, int pageSize, Map<String, Object> data) throws NyException {
-        QScript script = new QPagedScript(parse(scriptName, data), pageSize);
+        return paginate(scriptName, pageSize, data, 0);
+    }
+
+    /**
+     * Executes the given <code>select</code> query and fetches subset of result each has rows size of
+     * <code>pageSize</code>, while reading next pages in background ahead of the consumer.
+     *
+     * <p>
+     *     A dedicated reader reads up to <code>prefetchPages</code> pages ahead, and waits until
+     *     the consumer takes them. Any exception occurred while reading will be thrown when
+     *     the consumer asks for the next page. If the consumer stops before reading all pages,
+     *     it must close the returned iterable to release the connection.
+     * </p>
+     *
+     * @param scriptName name of the script to run.
+     * @param pageSize number of rows per page to return in each block.
+     * @param data set of variables to be passed to the script run.
+     * @param prefetchPages maximum number of pages to read ahead. If zero, pages will be read
+     *                      only when requested.
+     * @return an iterable list of pages (blocks) of rows.
+     * @throws NyException any exception thrown while executing for pagination.
+     */
+    @SuppressWarnings("unchecked")
+    @CompileStatic
+    public Iterable<NyQLResult> paginate(String scriptName, int pageSize, Map<String, Object> data, int prefetchPages) throws NyException {
+        QScript script = new QPagedScript(parse(scriptName, data), pageSize, prefetchPages);
         try {
             return (Iterable<NyQLResult>) configurations.getExecutorRegistry().defaultExecutorFactory().create().execute(script);
         } catch (Exception ex) {
@@ -257,6 +354,54 @@ public class NyQLInstance implements NyQLInstanceMXBean, AutoCloseable {
         }
     }
 
+    /**
+     * Executes the given <code>select</code> query and pushes each result row to the given consumer
+     * as it is read from the database, without collecting rows into a result. Use this
+     * when reading a very large number of rows, such as in exports.
+     *
+     * @param scriptName name of the script to run.
+     * @param data set of variables to be passed to the script run.
+     * @param consumer consumer receiving each row.
+     * @return number of rows streamed.
+     * @throws NyException any exception thrown while executing or consuming rows.
+     */
+    @CompileStatic
+    public long stream(String scriptName, Map<String, Object> data, RowConsumer consumer) throws NyException {
+        return stream(scriptName, data, 0, consumer);
+    }
+
+    /**
+     * Executes the given <code>select</code> query and pushes each result row to the given consumer
+     * as it is read from the database, without collecting rows into a result.
+     *
+     * @param scriptName name of the script to run.
+     * @param data set of variables to be passed to the script run.
+     * @param fetchSize number of rows to fetch from database at once. If zero or negative,
+     *                  fetch size configured in executor will be used.
+     * @param consumer consumer receiving each row.
+     * @return number of rows streamed.
+     * @throws NyException any exception thrown while executing or consuming rows.
+     */
+    @CompileStatic
+    public long stream(String scriptName, Map<String, Object> data, int fetchSize, RowConsumer consumer) throws NyException {
+        QScript script = null;
+        try {
+            script = new QStreamedScript(parse(scriptName, data), consumer, fetchSize);
+            Object result = configurations.getExecutorRegistry().defaultExecutorFactory().create().execute(script);
+            return result instanceof Number ? ((Number) result).longValue() : 0L;
+        } catch (Exception ex) {
+            if (ex instanceof NyException) {
+                throw (NyException) ex;
+            } else {
+                throw new NyScriptExecutionException("Ny script execution error!", ex);
+            }
+        } finally {
+            if (script != null) {
+                script.free();
+            }
+        }
+    }
+
     /**
      * Executes the given script and returns the result as a json string.
      * <p>
@@ -5,29 +5,42 @@ import com.virtusa.gto.nyql.exceptions.NyException;
 import com.virtusa.gto.nyql.exceptions.NyInitializationException;
 import com.virtusa.gto.nyql.model.QSource;
 import com.virtusa.gto.nyql.model.units.ParamList;
-import groovy.lang.GroovyCodeSource;
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.CodeVisitorSupport;
 import org.codehaus.groovy.ast.builder.AstBuilder;
 import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
 import org.codehaus.groovy.ast.expr.ConstantExpression;
 import org.codehaus.groovy.ast.expr.DeclarationExpression;
 import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.ListExpression;
 import org.codehaus.groovy.ast.expr.MethodCallExpression;
 import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.expr.TernaryExpression;
 import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.DoWhileStatement;
+import org.codehaus.groovy.ast.stmt.ForStatement;
+import org.codehaus.groovy.ast.stmt.IfStatement;
+import org.codehaus.groovy.ast.stmt.SwitchStatement;
+import org.codehaus.groovy.ast.stmt.TryCatchStatement;
+import org.codehaus.groovy.ast.stmt.WhileStatement;
 import org.codehaus.groovy.control.CompilePhase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * @author iweerarathna
@@ -36,58 +49,196 @@ class ScriptCacheValidator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ScriptCacheValidator.class);
 
+    private static final String FINGERPRINT_FILE = "validation.fingerprints";
+
     private final Configurations configurations;
+    private final ScriptFingerprintStore fingerprintStore;
 
     ScriptCacheValidator(Configurations configurations) {
         this.configurations = configurations;
+        String storeDir = configurations != null ? configurations.classCacheDir() : null;
+        this.fingerprintStore = storeDir != null
+                ? new ScriptFingerprintStore(Paths.get(storeDir).resolve(FINGERPRINT_FILE))
+                : null;
     }
 
-    public void check(Collection<QSource> sources) throws NyException {
+    /**
+     * Validates cache declarations of all given scripts.
+     *
+     * Scripts are analysed in parallel, and analysis of a script is reused from the
+     * fingerprint store when its content has not been changed since last successful
+     * validation. Cache hierarchy is always checked on the merged call graph.
+     *
+     * @param sources all scripts.
+     * @return analyses of all non-empty scripts.
+     * @throws NyException when there are caching errors in scripts.
+     */
+    public List<Analysis> check(Collection<QSource> sources) throws NyException {
         if (sources == null || sources.isEmpty()) {
-            return;
+            return new ArrayList<>();
         }
 
-        LOGGER.info("Script cache validation started. (this may take several minutes)...");
+        LOGGER.info("Script cache validation started...");
+        Map<String, Analysis> stored = fingerprintStore != null
+                ? fingerprintStore.load()
+                : Collections.<String, Analysis>emptyMap();
+        List<Analysis> analyses = analyseAll(sources, stored);
+
         int errorCount = 0;
+        int analysedCount = 0;
         Map<String, Boolean> cacheStatus = new HashMap<>();
+        Map<String, Boolean> shapeStatus = new HashMap<>();
         Map<String, Set<String>> scriptCalls = new HashMap<>();
-        for (QSource source : sources) {
-            ParseVisitor visitor = new ParseVisitor();
-            GroovyCodeSource codeSource = source.getCodeSource();
-
-            if (hasCode(source)) {
-                List<ASTNode> astNodes = new AstBuilder().buildFromString(CompilePhase.CONVERSION,
-                        false,
-                        codeSource.getScriptText());
-                if (astNodes != null) {
-                    for (ASTNode node : astNodes) {
-                        if (!(node instanceof ClassNode)) {
-                            node.visit(visitor);
-                        }
-                    }
-                }
-
-                cacheStatus.put(source.getId(), visitor.cached);
-                scriptCalls.put(source.getId(), new HashSet<>(visitor.scriptCalls));
-                Level level = checkVisitor(visitor, source);
-                if (level == Level.ERROR) errorCount++;
-            } else {
-                LOGGER.error("  > Script '{}' is empty!", source.getId());
+        Map<String, Analysis> current = new HashMap<>();
+        List<Analysis> results = new ArrayList<>(analyses.size());
+        for (Analysis analysis : analyses) {
+            for (String error : analysis.errors) {
+                LOGGER.error(error);
+            }
+            for (String warning : analysis.warnings) {
+                LOGGER.warn(warning);
+            }
+            if (!analysis.reused) {
+                analysedCount++;
+            }
+            if (!analysis.errors.isEmpty()) {
                 errorCount++;
             }
+            if (analysis.empty) {
+                continue;
+            }
+
+            cacheStatus.put(analysis.id, analysis.cached);
+            shapeStatus.put(analysis.id, analysis.cached || analysis.shapeCached);
+            scriptCalls.put(analysis.id, new HashSet<>(analysis.calls));
+            current.put(analysis.fingerprint, analysis);
+            results.add(analysis);
         }
 
         // analyze script dependency graph to check cache errors...
         errorCount += checkCacheHierarchy(cacheStatus, scriptCalls);
+        errorCount += checkShapeHierarchy(cacheStatus, shapeStatus, scriptCalls);
 
-        LOGGER.info("Script cache validation finished.");
+        LOGGER.info("Script cache validation finished. Analysed {} changed script(s) out of {}.",
+                analysedCount, analyses.size());
         if (errorCount > 0) {
             throw new NyInitializationException("There are " + errorCount + " caching error(s) in scripts! " +
                     "Check the logs and fix to continue.");
         }
+        if (fingerprintStore != null && analysedCount > 0) {
+            fingerprintStore.save(current);
+        }
+        return results;
     }
 
-    private boolean hasCode(QSource source) {
+    private List<Analysis> analyseAll(Collection<QSource> sources, Map<String, Analysis> stored) {
+        int threads = configurations != null
+                ? configurations.compileThreads()
+                : Runtime.getRuntime().availableProcessors();
+        threads = Math.max(1, Math.min(threads, sources.size()));
+
+        List<Analysis> analyses = new ArrayList<>(sources.size());
+        if (threads == 1) {
+            for (QSource source : sources) {
+                analyses.add(analyse(source, stored));
+            }
+            return analyses;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<ForkJoinTask<Analysis>> tasks = new ArrayList<>(sources.size());
+            for (QSource source : sources) {
+                tasks.add(pool.submit(() -> analyse(source, stored)));
+            }
+            for (ForkJoinTask<Analysis> task : tasks) {
+                analyses.add(task.join());
+            }
+            return analyses;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Analysis analyse(QSource source, Map<String, Analysis> stored) {
+        String fingerprint = fingerprintStore != null ? fingerprintStore.fingerprintOf(source) : null;
+        Analysis known = fingerprint != null ? stored.get(fingerprint) : null;
+        if (known != null) {
+            known.reused = true;
+            return known;
+        }
+
+        Analysis analysis = new Analysis(source.getId(), fingerprint);
+        if (hasCode(source)) {
+            ParseVisitor visitor = new ParseVisitor();
+            visit(source, visitor);
+
+            analysis.cached = visitor.cached;
+            analysis.shapeCached = visitor.shapeCached;
+            analysis.calls.addAll(visitor.scriptCalls);
+            analysis.declarative = isDeclarative(visitor);
+            checkVisitor(visitor, analysis);
+        } else {
+            analysis.empty = true;
+            analysis.errors.add("  > Script '" + source.getId() + "' is empty!");
+        }
+        return analysis;
+    }
+
+    /**
+     * Returns ids of all scripts called (imported or run) by the given script.
+     *
+     * @param source script source.
+     * @return called script ids as written in the script.
+     */
+    static Set<String> findScriptCalls(QSource source) {
+        ParseVisitor visitor = new ParseVisitor();
+        if (source.getCodeSource() != null && hasCode(source)) {
+            visit(source, visitor);
+        }
+        return new HashSet<>(visitor.scriptCalls);
+    }
+
+    /**
+     * Returns true if the given script is purely declarative. Such a script neither reads
+     * session variables nor calls other scripts, and has no control flow, hence it always
+     * generates the same query.
+     *
+     * @param source script source.
+     * @return true if the script is declarative.
+     */
+    static boolean isDeclarative(QSource source) {
+        if (source.getCodeSource() == null || !hasCode(source)) {
+            return false;
+        }
+        ParseVisitor visitor = new ParseVisitor();
+        visit(source, visitor);
+        return isDeclarative(visitor);
+    }
+
+    private static boolean isDeclarative(ParseVisitor visitor) {
+        return !visitor.sessionUsed
+                && !visitor.bindingUsed
+                && !visitor.logicUsed
+                && !visitor.scriptCallUsed
+                && !visitor.shapeCached
+                && !visitor.dslCalls.contains("script");
+    }
+
+    private static void visit(QSource source, ParseVisitor visitor) {
+        List<ASTNode> astNodes = new AstBuilder().buildFromString(CompilePhase.CONVERSION,
+                false,
+                source.getCodeSource().getScriptText());
+        if (astNodes != null) {
+            for (ASTNode node : astNodes) {
+                if (!(node instanceof ClassNode)) {
+                    node.visit(visitor);
+                }
+            }
+        }
+    }
+
+    private static boolean hasCode(QSource source) {
         return source.getCodeSource().getScriptText() != null
                 && source.getCodeSource().getScriptText().trim().length() > 0;
     }
@@ -115,6 +266,31 @@ class ScriptCacheValidator {
         return errors;
     }
 
+    private int checkShapeHierarchy(Map<String, Boolean> cacheStatus,
+                                    Map<String, Boolean> shapeStatus,
+                                    Map<String, Set<String>> scriptCalls) {
+        Map<String, Boolean> memo = new HashMap<>();
+        int errors = 0;
+        for (Map.Entry<String, Set<String>> entry : scriptCalls.entrySet()) {
+            // fully cached scripts have been already checked
+            if (cacheStatus.get(entry.getKey()) || !shapeStatus.get(entry.getKey())) {
+                continue;
+            }
+
+            for (String c : entry.getValue()) {
+                Set<String> traversed = new HashSet<>();
+                if (!calcCache(c, shapeStatus, scriptCalls, memo, traversed)) {
+                    LOGGER.error("  > Script '{}' is shape cached, but one of its " +
+                            "dependent script is non-cached!", entry.getKey());
+                    printNonCachedScripts(traversed, shapeStatus);
+                    errors++;
+                    break;
+                }
+            }
+        }
+        return errors;
+    }
+
     private void printNonCachedScripts(Set<String> scripts, Map<String, Boolean> cachedStatus) {
         for (String scr : scripts) {
             if (!cachedStatus.get(scr)) {
@@ -149,15 +325,31 @@ class ScriptCacheValidator {
         }
     }
 
-    private Level checkVisitor(ParseVisitor visitor, QSource source) throws NyException {
-        if (visitor.cached && !isCacheable(visitor)) {
-            LOGGER.error("  > Script '{}' is non-cacheable, but found as cached!", source.getId());
-            return Level.ERROR;
+    private void checkVisitor(ParseVisitor visitor, Analysis analysis) {
+        if (!visitor.cached && visitor.shapeCached) {
+            checkShapeVisitor(visitor, analysis);
+        } else if (visitor.cached && !isCacheable(visitor)) {
+            analysis.errors.add("  > Script '" + analysis.id + "' is non-cacheable, but found as cached!");
         } else if (!visitor.cached && isCacheable(visitor)) {
-            LOGGER.warn("  > Script '{}' can be cacheable. Verify it and make it cacheable, if possible.", source.getId());
-            return Level.WARN;
+            analysis.warnings.add("  > Script '" + analysis.id + "' can be cacheable. " +
+                    "Verify it and make it cacheable, if possible.");
+        }
+    }
+
+    private void checkShapeVisitor(ParseVisitor visitor, Analysis analysis) {
+        if (visitor.dslCalls.contains("script") || visitor.dslCalls.contains("RUN")) {
+            analysis.errors.add("  > Script '" + analysis.id + "' is non-cacheable, but found as shape cached!");
+            return;
+        }
+
+        for (String var : visitor.sessionVars) {
+            int dot = var.indexOf('.');
+            String root = dot > 0 ? var.substring(0, dot) : var;
+            if (!visitor.shapeVars.contains(root)) {
+                analysis.errors.add("  > Script '" + analysis.id + "' is shape cached, but session variable '" +
+                        root + "' has not been declared as a shape variable!");
+            }
         }
-        return Level.OK;
     }
 
     private boolean isCacheable(ParseVisitor visitor) {
@@ -168,13 +360,43 @@ class ScriptCacheValidator {
                 && !visitor.dslCalls.contains("RUN");
     }
 
-    private enum Level {
-        ERROR, WARN, OK
+    /**
+     * Result of analysing a single script, independent of all other scripts.
+     */
+    static final class Analysis {
+        final String id;
+        final String fingerprint;
+        boolean empty = false;
+        boolean cached = false;
+        boolean shapeCached = false;
+        boolean declarative = false;
+        final Set<String> calls = new HashSet<>();
+        final List<String> errors = new ArrayList<>();
+        final List<String> warnings = new ArrayList<>();
+        boolean reused = false;
+
+        Analysis(String id, String fingerprint) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Set<String> getCalls() {
+            return calls;
+        }
+
+        public boolean isDeclarative() {
+            return declarative;
+        }
     }
 
     private static class ParseVisitor extends CodeVisitorSupport {
 
         private static final String EMPTY = "";
+        private static final Set<String> SCRIPT_VARIABLES = new HashSet<>(Arrays.asList("$DSL", "this", "super"));
         private boolean sessionUsed = false;
         private Set<String> sessionVars = new HashSet<>();
         private List<String> dslCalls = new ArrayList<>();
@@ -182,14 +404,36 @@ class ScriptCacheValidator {
         private List<Map<String, String>> params = new ArrayList<>();
         private boolean insideScriptCall = false;
         private boolean cached = false;
+        private boolean shapeCached = false;
+        private Set<String> shapeVars = new HashSet<>();
+        private Set<String> declaredVars = new HashSet<>();
+        private boolean bindingUsed = false;
+        private boolean logicUsed = false;
+        private boolean scriptCallUsed = false;
+        private int closureDepth = 0;
 
         @Override
         public void visitDeclarationExpression(DeclarationExpression expression) {
+            if (!expression.isMultipleAssignmentDeclaration()) {
+                declaredVars.add(expression.getVariableExpression().getName());
+            }
             super.visitDeclarationExpression(expression);
             if (!cached) {
                 cached = expression.getVariableExpression().getName().equals("do_cache")
                         && expression.getAnnotations().size() > 0;
             }
+            if (!shapeCached && expression.getVariableExpression().getName().equals("do_cache_shape")
+                    && expression.getAnnotations().size() > 0) {
+                shapeCached = true;
+                Expression value = expression.getRightExpression();
+                if (value instanceof ListExpression) {
+                    for (Expression item : ((ListExpression) value).getExpressions()) {
+                        shapeVars.add(item.getText());
+                    }
+                } else {
+                    shapeVars.add(value.getText());
+                }
+            }
         }
 
         @Override
@@ -229,9 +473,66 @@ class ScriptCacheValidator {
             if (!sessionUsed && isSessionVar(expression)) {
                 sessionUsed = true;
             }
+            // outside of dsl closures, undeclared variables are read from session binding
+            if (closureDepth == 0 && !declaredVars.contains(expression.getName())
+                    && !SCRIPT_VARIABLES.contains(expression.getName())) {
+                bindingUsed = true;
+            }
             super.visitVariableExpression(expression);
         }
 
+        @Override
+        public void visitClosureExpression(ClosureExpression expression) {
+            closureDepth++;
+            try {
+                super.visitClosureExpression(expression);
+            } finally {
+                closureDepth--;
+            }
+        }
+
+        @Override
+        public void visitIfElse(IfStatement ifElse) {
+            logicUsed = true;
+            super.visitIfElse(ifElse);
+        }
+
+        @Override
+        public void visitForLoop(ForStatement forLoop) {
+            logicUsed = true;
+            super.visitForLoop(forLoop);
+        }
+
+        @Override
+        public void visitWhileLoop(WhileStatement loop) {
+            logicUsed = true;
+            super.visitWhileLoop(loop);
+        }
+
+        @Override
+        public void visitDoWhileLoop(DoWhileStatement loop) {
+            logicUsed = true;
+            super.visitDoWhileLoop(loop);
+        }
+
+        @Override
+        public void visitSwitch(SwitchStatement statement) {
+            logicUsed = true;
+            super.visitSwitch(statement);
+        }
+
+        @Override
+        public void visitTryCatchFinally(TryCatchStatement statement) {
+            logicUsed = true;
+            super.visitTryCatchFinally(statement);
+        }
+
+        @Override
+        public void visitTernaryExpression(TernaryExpression expression) {
+            logicUsed = true;
+            super.visitTernaryExpression(expression);
+        }
+
         @Override
         public void visitMethodCallExpression(MethodCallExpression call) {
             if (isDsl(call.getObjectExpression())) {
@@ -241,6 +542,7 @@ class ScriptCacheValidator {
             if (call.getMethodAsString().equals("$IMPORT")
                     || call.getMethodAsString().equals("RUN")
                     || call.getMethodAsString().equals("$IMPORT_SAFE")) {
+                scriptCallUsed = true;
                 call.getObjectExpression().visit(this);
                 call.getMethod().visit(this);
                 insideScriptCall = isFirstArgConstant(call.getArguments());
@@ -0,0 +1,43 @@
+package com.virtusa.gto.nyql.engine.repo;
+
+import com.virtusa.gto.nyql.model.NyBaseScript;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates new instances of a compiled script class through a cached constructor handle,
+ * avoiding reflective lookups for every script invocation.
+ *
+ * @author iweerarathna
+ */
+final class ScriptConstructor {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class);
+    private static final MethodType INVOKE_TYPE = MethodType.methodType(NyBaseScript.class);
+
+    private final Class<?> scriptClass;
+    private final MethodHandle constructor;
+
+    ScriptConstructor(Class<?> scriptClass) throws ReflectiveOperationException {
+        this.scriptClass = scriptClass;
+        this.constructor = MethodHandles.publicLookup()
+                .findConstructor(scriptClass, CONSTRUCTOR_TYPE)
+                .asType(INVOKE_TYPE);
+    }
+
+    Class<?> getScriptClass() {
+        return scriptClass;
+    }
+
+    NyBaseScript newInstance() {
+        try {
+            return (NyBaseScript) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to create an instance of script " + scriptClass.getName(), t);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.virtusa.gto.nyql.engine.repo;
+
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Caching related metadata of a compiled script class, resolved once per class.
+ * Declared cache indicator fields are read through cached getter handles, hence
+ * scripts without such fields cost nothing after a run.
+ *
+ * @author iweerarathna
+ */
+final class ScriptDescriptor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> scriptClass;
+    private final MethodHandle cacheIndicator;
+    private final MethodHandle shapeVariables;
+
+    private ScriptDescriptor(Class<?> scriptClass, String cacheVarName, String shapeVarName) {
+        this.scriptClass = scriptClass;
+        MethodHandle cacheGetter = null;
+        MethodHandle shapeGetter = null;
+        for (Field field : scriptClass.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            if (field.getName().equals(cacheVarName)) {
+                cacheGetter = getterOf(field);
+            } else if (field.getName().equals(shapeVarName)) {
+                shapeGetter = getterOf(field);
+            }
+        }
+        this.cacheIndicator = cacheGetter;
+        this.shapeVariables = shapeGetter;
+    }
+
+    /**
+     * Creates a per class lookup of descriptors for given indicator variable names.
+     *
+     * @param cacheVarName name of the cache indicator variable.
+     * @param shapeVarName name of the shape variables declaration.
+     * @return descriptor lookup.
+     */
+    static ClassValue<ScriptDescriptor> lookup(final String cacheVarName, final String shapeVarName) {
+        return new ClassValue<ScriptDescriptor>() {
+            @Override
+            protected ScriptDescriptor computeValue(Class<?> type) {
+                return new ScriptDescriptor(type, cacheVarName, shapeVarName);
+            }
+        };
+    }
+
+    boolean hasShapeVariables() {
+        return shapeVariables != null;
+    }
+
+    /**
+     * Returns true if the given script instance has declared to cache its generated query.
+     *
+     * @param script script instance after running.
+     * @return cache status.
+     */
+    boolean isCached(Object script) {
+        return cacheIndicator != null && DefaultTypeTransformation.castToBoolean(read(cacheIndicator, script));
+    }
+
+    /**
+     * Returns declared shape variables of the given script instance.
+     *
+     * @param script script instance.
+     * @return declared value, or null if not declared.
+     */
+    Object readShapeVariables(Object script) {
+        return shapeVariables != null ? read(shapeVariables, script) : null;
+    }
+
+    private Object read(MethodHandle getter, Object script) {
+        try {
+            return (Object) getter.invokeExact(script);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to read a field of script " + scriptClass.getName(), t);
+        }
+    }
+
+    private static MethodHandle getterOf(Field field) {
+        try {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException | SecurityException ex) {
+            throw new IllegalStateException("Cannot access field '" + field.getName() + "' of script "
+                    + field.getDeclaringClass().getName(), ex);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.virtusa.gto.nyql.engine.repo;
+
+import com.virtusa.gto.nyql.model.QSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persists cache analysis of each script by a fingerprint of its content, so that
+ * only changed scripts need to be analysed again by {@link ScriptCacheValidator}
+ * across restarts. Fingerprints include NyQL version, hence upgrading NyQL
+ * invalidates all entries. The file can be safely deleted at any time.
+ *
+ * @author iweerarathna
+ */
+class ScriptFingerprintStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptFingerprintStore.class);
+
+    private static final int MAGIC = 0x4E594657;
+
+    private final Path file;
+    private final String environmentKey;
+
+    ScriptFingerprintStore(Path storeFile) {
+        this.file = storeFile;
+        this.environmentKey = ScriptDigest.environmentKey();
+    }
+
+    /**
+     * Returns the fingerprint of the given script content.
+     *
+     * @param source script source.
+     * @return fingerprint as a hex string.
+     */
+    String fingerprintOf(QSource source) {
+        return ScriptDigest.hash(environmentKey, source.getId(), source.getCodeSource().getScriptText());
+    }
+
+    /**
+     * Loads all stored analyses. A missing or corrupted store is treated as empty.
+     *
+     * @return analyses by fingerprint.
+     */
+    Map<String, ScriptCacheValidator.Analysis> load() {
+        if (!Files.exists(file)) {
+            return Collections.emptyMap();
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC) {
+                LOGGER.debug("Ignoring script fingerprint store written in a different format.");
+                return Collections.emptyMap();
+            }
+            int count = input.readInt();
+            Map<String, ScriptCacheValidator.Analysis> entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                ScriptCacheValidator.Analysis analysis = new ScriptCacheValidator.Analysis(input.readUTF(), input.readUTF());
+                analysis.cached = input.readBoolean();
+                analysis.shapeCached = input.readBoolean();
+                analysis.declarative = input.readBoolean();
+                int calls = input.readInt();
+                for (int c = 0; c < calls; c++) {
+                    analysis.calls.add(input.readUTF());
+                }
+                int warnings = input.readInt();
+                for (int w = 0; w < warnings; w++) {
+                    analysis.warnings.add(input.readUTF());
+                }
+                entries.put(analysis.fingerprint, analysis);
+            }
+            return entries;
+        } catch (IOException ex) {
+            LOGGER.warn("Ignoring corrupted script fingerprint store! [" + ex.getMessage() + "]");
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Replaces the store with the given analyses. Only analyses without errors are
+     * expected here, since validation fails otherwise.
+     *
+     * @param entries analyses by fingerprint.
+     */
+    void save(Map<String, ScriptCacheValidator.Analysis> entries) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), "nyql", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(entries.size());
+                for (ScriptCacheValidator.Analysis analysis : entries.values()) {
+                    out.writeUTF(analysis.id);
+                    out.writeUTF(analysis.fingerprint);
+                    out.writeBoolean(analysis.cached);
+                    out.writeBoolean(analysis.shapeCached);
+                    out.writeBoolean(analysis.declarative);
+                    writeAll(out, analysis.calls);
+                    writeAll(out, analysis.warnings);
+                }
+            }
+
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to persist script fingerprints! [" + ex.getMessage() + "]");
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // nothing to do
+                }
+            }
+        }
+    }
+
+    private static void writeAll(DataOutputStream out, Collection<String> items) throws IOException {
+        out.writeInt(items.size());
+        for (String item : items) {
+            out.writeUTF(item);
+        }
+    }
+}
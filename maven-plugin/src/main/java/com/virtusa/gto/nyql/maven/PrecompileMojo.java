@@ -0,0 +1,147 @@
+package com.virtusa.gto.nyql.maven;
+
+import com.virtusa.gto.nyql.configs.Configurations;
+import com.virtusa.gto.nyql.engine.repo.QScriptsFolder;
+import com.virtusa.gto.nyql.engine.repo.ScriptPrecompiler;
+import com.virtusa.gto.nyql.exceptions.NyException;
+import com.virtusa.gto.nyql.model.QSource;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Validates and compiles all NyQL scripts in a directory into a jar, which can be
+ * loaded at runtime using the <code>precompiled</code> script mapper.
+ *
+ * @author iweerarathna
+ */
+@Mojo(name = "precompile", defaultPhase = LifecyclePhase.PACKAGE,
+        requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class PrecompileMojo extends AbstractMojo {
+
+    /**
+     * Root directory of scripts.
+     */
+    @Parameter(defaultValue = "${project.basedir}/src/main/nyql", required = true)
+    private File scriptsDir;
+
+    /**
+     * Comma separated glob patterns of scripts to include, relative to the scripts directory.
+     */
+    @Parameter
+    private String inclusions;
+
+    /**
+     * Comma separated glob patterns of scripts to exclude, relative to the scripts directory.
+     */
+    @Parameter
+    private String exclusions;
+
+    /**
+     * Output jar having compiled scripts.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/${project.build.finalName}-nyql-scripts.jar", required = true)
+    private File outputFile;
+
+    /**
+     * Imports added to every script. Must be same as the 'defaultImports' used at runtime.
+     * Defaults to the NyQL built in imports.
+     */
+    @Parameter
+    private String[] defaultImports;
+
+    /**
+     * Whether to validate cache declarations of scripts before compiling.
+     */
+    @Parameter(defaultValue = "true")
+    private boolean validate;
+
+    /**
+     * Whether to compile scripts statically, as the <code>caching.staticDsl</code> runtime option does.
+     */
+    @Parameter(defaultValue = "false")
+    private boolean staticDsl;
+
+    /**
+     * Whether to attach the output jar to the project using the given classifier.
+     */
+    @Parameter(defaultValue = "true")
+    private boolean attach;
+
+    @Parameter(defaultValue = "nyql-scripts")
+    private String classifier;
+
+    @Parameter(property = "nyql.precompile.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Component
+    private MavenProjectHelper projectHelper;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping NyQL script precompilation.");
+            return;
+        }
+        if (!scriptsDir.isDirectory()) {
+            throw new MojoExecutionException("Scripts directory does not exist! [" + scriptsDir + "]");
+        }
+
+        QScriptsFolder scriptsFolder = new QScriptsFolder(scriptsDir);
+        scriptsFolder.setInclusionPatterns(inclusions != null ? inclusions : "");
+        scriptsFolder.setExclusionPatterns(exclusions != null ? exclusions : "");
+        Collection<QSource> sources = scriptsFolder.scanDir().allSources();
+
+        String[] imports = defaultImports != null ? defaultImports : Configurations.builtInImports();
+        try (URLClassLoader classLoader = createProjectClassLoader()) {
+            ScriptPrecompiler precompiler = new ScriptPrecompiler(imports, classLoader);
+            precompiler.setValidate(validate);
+            precompiler.setStaticDsl(staticDsl);
+            int count = precompiler.precompile(sources, outputFile);
+            getLog().info("Compiled " + count + " NyQL script(s) into " + outputFile);
+        } catch (NyException ex) {
+            throw new MojoFailureException(ex.getMessage(), ex);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to write precompiled scripts!", ex);
+        }
+
+        if (attach) {
+            projectHelper.attachArtifact(project, "jar", classifier, outputFile);
+        }
+    }
+
+    /**
+     * Creates a class loader having compile classpath of the project, so scripts
+     * can refer project classes.
+     */
+    private URLClassLoader createProjectClassLoader() throws MojoExecutionException {
+        try {
+            List<URL> urls = new ArrayList<>();
+            for (String element : project.getCompileClasspathElements()) {
+                urls.add(new File(element).toURI().toURL());
+            }
+            return new URLClassLoader(urls.toArray(new URL[0]), getClass().getClassLoader());
+        } catch (MalformedURLException | org.apache.maven.artifact.DependencyResolutionRequiredException ex) {
+            throw new MojoExecutionException("Failed to resolve project classpath!", ex);
+        }
+    }
+}
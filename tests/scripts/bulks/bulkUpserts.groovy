@@ -0,0 +1,39 @@
+/**
+ * @author IWEERARATHNA
+ */
+[
+    $DSL.bulkUpsert {
+        TARGET (Film.alias("f"))
+        SET {
+            EQ (f.film_id, PARAM("id"))
+            EQ (f.title, PARAM("title"))
+        }
+        WHERE {
+            EQ (f.film_id, PARAM("id"))
+        }
+        ON_CONFLICT (f.film_id)
+    },
+    [
+        mysql:  ["INSERT INTO `Film` (`film_id`, `title`) VALUES (?, ?) ON DUPLICATE KEY UPDATE `film_id` = ?, `title` = ?",
+                 ["id", "title", "id", "title"]]
+    ],
+
+    $DSL.bulkUpsert {
+        TARGET (Film.alias("f"))
+        SET {
+            EQ (f.film_id, PARAM("id"))
+            EQ (f.title, PARAM("title"))
+        }
+        WHERE {
+            EQ (f.film_id, PARAM("id"))
+        }
+        UPDATE_SET {
+            EQ (f.title, PARAM("title"))
+        }
+        ON_CONFLICT (f.film_id)
+    },
+    [
+        mysql:  ["INSERT INTO `Film` (`film_id`, `title`) VALUES (?, ?) ON DUPLICATE KEY UPDATE `title` = ?",
+                 ["id", "title", "title"]]
+    ]
+]
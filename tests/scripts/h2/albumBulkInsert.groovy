@@ -0,0 +1,10 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.bulkInsert {
+    TARGET (Album)
+    DATA (
+        "title": PARAM("title")
+    )
+    RETURN_KEYS()
+}
@@ -0,0 +1,11 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.bulkInsert {
+    TARGET (Album)
+    DATA (
+        "title": PARAM("title")
+    )
+    MULTI_ROW(2)
+    RETURN_KEYS()
+}
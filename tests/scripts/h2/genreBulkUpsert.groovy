@@ -0,0 +1,14 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.bulkUpsert {
+    TARGET (Genre.alias("g"))
+    SET {
+        EQ (g.id, PARAM("id"))
+        EQ (g.name, PARAM("name"))
+    }
+    WHERE {
+        EQ (g.id, PARAM("id"))
+    }
+    ON_CONFLICT (g.id)
+}
@@ -0,0 +1,12 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.bulkInsert {
+    TARGET (Song)
+    DATA (
+        "title": PARAM("title"),
+        "released": PARAM("year"),
+        "deleted": BOOLEAN(false)
+    )
+    MULTI_ROW(2)
+}
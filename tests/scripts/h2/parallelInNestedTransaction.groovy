@@ -0,0 +1,15 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.script {
+    boolean refused = false
+    TRANSACTION {
+        try {
+            RUN ("songDashboard")
+        } catch (com.virtusa.gto.nyql.exceptions.NyException ignored) {
+            refused = true
+        }
+    }
+    // allowed again once the transaction has ended
+    refused && PARALLEL { RUN ("songCount") }.size() == 1
+}
@@ -0,0 +1,16 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.script {
+    boolean refused = false
+    TRANSACTION {
+        try {
+            PARALLEL {
+                RUN ("songCount")
+            }
+        } catch (com.virtusa.gto.nyql.exceptions.NyException ignored) {
+            refused = true
+        }
+    }
+    refused
+}
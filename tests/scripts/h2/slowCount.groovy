@@ -0,0 +1,4 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.nativeQuery(QueryType.SELECT, 'SELECT NAP(1200) AS "slept"')
@@ -0,0 +1,10 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.script {
+    PARALLEL {
+        RUN ("slowCount")
+        RUN ("slowCount")
+        RUN ("slowCount")
+    }
+}
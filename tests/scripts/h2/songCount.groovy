@@ -0,0 +1,7 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.select {
+    TARGET (Song)
+    FETCH (COUNT().alias("total"))
+}
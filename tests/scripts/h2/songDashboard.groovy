@@ -0,0 +1,10 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.script {
+    PARALLEL {
+        RUN ("songCount")
+        RUN ("songs")
+        RUN ("songCount")
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.select {
+    TARGET (Song.alias("s"))
+    FETCH (s.title)
+    ORDER_BY (s.id)
+}
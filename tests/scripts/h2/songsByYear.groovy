@@ -0,0 +1,15 @@
+/**
+ * @author IWEERARATHNA
+ */
+@Field do_cache_shape = ['filterByYear']
+
+$DSL.select {
+    TARGET (Song.alias("s"))
+    FETCH (s.title)
+    if ($SESSION.filterByYear) {
+        WHERE {
+            GTE (s.released, PARAM("fromYear"))
+        }
+    }
+    ORDER_BY (s.id)
+}
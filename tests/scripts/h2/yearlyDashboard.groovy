@@ -0,0 +1,10 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.script {
+    PARALLEL {
+        RUN ("songsByYear")
+        RUN ("songsByYear")
+        RUN ("songsByYear")
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * @author IWEERARATHNA
+ */
+$DSL.bulkInsert {
+    TARGET (Song)
+    DATA (
+        "title": PARAM("title"),
+        "released": PARAM("year")
+    )
+}
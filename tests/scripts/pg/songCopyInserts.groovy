@@ -0,0 +1,28 @@
+/**
+ * @author IWEERARATHNA
+ */
+[
+    $DSL.bulkInsert {
+        TARGET (Song)
+        DATA (
+            "title": PARAM("title"),
+            "released": PARAM("year")
+        )
+    },
+
+    $DSL.bulkInsert {
+        TARGET (Song)
+        DATA (
+            "title": PARAM("title"),
+            "deleted": BOOLEAN(false)       // constants are not loaded using COPY
+        )
+    },
+
+    $DSL.bulkInsert {
+        TARGET (Song)
+        DATA (
+            "title": PARAM("title")
+        )
+        RETURN_KEYS()                       // COPY does not return keys
+    }
+]
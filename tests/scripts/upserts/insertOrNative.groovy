@@ -0,0 +1,29 @@
+[
+    $DSL.insertOrLoad {
+        TARGET (Film.alias("f"))
+        SET {
+            EQ (f.film_id, PARAM("id"))
+            EQ (f.title, PARAM("title"))
+        }
+        ON_CONFLICT (f.film_id)
+    },
+    [
+            [
+                    mysql: ["SELECT * FROM `Film` f WHERE f.film_id = ? AND f.title = ? LIMIT 1", ["id", "title"]],
+                    pg: ["WITH ins AS (INSERT INTO \"Film\" (\"film_id\", \"title\") VALUES (?, ?) ON CONFLICT (\"film_id\") DO NOTHING RETURNING *) " +
+                                 "SELECT * FROM ins UNION ALL SELECT * FROM \"Film\" f WHERE f.film_id = ? AND f.title = ? LIMIT 1",
+                         ["id", "title", "id", "title"]],
+                    mssql: ["DECLARE @nocount INT = @@OPTIONS & 512; SET NOCOUNT ON; " +
+                                    "INSERT INTO \"Film\" (\"film_id\", \"title\") SELECT ?, ? " +
+                                    "WHERE NOT EXISTS (SELECT 1 FROM \"Film\" f WITH (UPDLOCK, HOLDLOCK) WHERE f.film_id = ? AND f.title = ?); " +
+                                    "SELECT TOP 1 * FROM \"Film\" f WHERE f.film_id = ? AND f.title = ?; " +
+                                    "IF @nocount = 0 SET NOCOUNT OFF;",
+                            ["id", "title", "id", "title", "id", "title"]]
+            ],
+            [
+                    mysql: ["INSERT INTO `Film` (`film_id`, `title`) VALUES (?, ?)", ["id", "title"]],
+                    pg: ["SELECT * FROM \"Film\" f WHERE f.film_id = ? AND f.title = ? LIMIT 1", ["id", "title"]],
+                    mssql: ["SELECT * FROM \"Film\" f WHERE f.film_id = ? AND f.title = ? LIMIT 1", ["id", "title"]]
+            ]
+    ]
+]
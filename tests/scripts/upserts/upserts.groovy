@@ -150,4 +150,51 @@
                 ]
         ],
 
-]
\ No newline at end of file
+        $DSL.upsert {
+            TARGET (Film.alias("f"))
+            SET {
+                EQ (f.film_id, 1234)
+                EQ (f.title, PARAM("title"))
+            }
+            UPDATE_SET {
+                EQ (f.title, PARAM("title"))
+            }
+            WHERE {
+                EQ (f.film_id, 1234)
+            }
+            ON_CONFLICT (f.film_id)     // unique key is known, so a single statement is generated
+        },
+        [
+                [
+                        mysql: ["INSERT INTO `Film` (`film_id`, `title`) VALUES (1234, ?) ON DUPLICATE KEY UPDATE `title` = ?", ["title", "title"]]
+                ]
+        ],
+
+        $DSL.upsert {
+            TARGET (Film.alias("f"))
+            SET {
+                EQ (f.film_id, 1234)
+                EQ (f.title, PARAM("title"))
+            }
+            WHERE {
+                EQ (f.film_id, 1234)
+            }
+            ON_CONFLICT (f.film_id)
+            RETURN_AFTER()      // not supported by a single statement in mysql
+        },
+        [
+                [
+                        mysql: "SELECT * FROM `Film` f WHERE f.film_id = 1234 LIMIT 1"
+                ],
+                [
+                        mysql: ["INSERT INTO `Film` (`film_id`, `title`) VALUES (1234, ?)", ["title"]]
+                ],
+                [
+                        mysql: ["UPDATE `Film` f SET f.film_id = 1234, f.title = ? WHERE f.film_id = 1234", ["title"]]
+                ],
+                [
+                        mysql: "SELECT * FROM `Film` f WHERE f.film_id = 1234 LIMIT 1"
+                ]
+        ],
+
+]
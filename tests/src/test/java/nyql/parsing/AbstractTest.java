@@ -6,6 +6,7 @@ import com.virtusa.gto.nyql.model.QScript;
 import com.virtusa.gto.nyql.model.QScriptList;
 import com.virtusa.gto.nyql.model.QScriptResult;
 import com.virtusa.gto.nyql.model.units.AParam;
+import groovy.json.JsonSlurper;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterSuite;
@@ -21,6 +22,8 @@ import java.util.Map;
  */
 public class AbstractTest {
 
+    private static final File CONFIG_FILE = new File("./configs/nyql2.json");
+
     private String activeDb;
 
     private static NyQLInstance nyQLInstance;
@@ -29,8 +32,26 @@ public class AbstractTest {
         return nyQLInstance;
     }
 
+    /**
+     * Creates a new instance having the same configurations as the suite instance,
+     * but activating the given database.
+     *
+     * @param db database to activate.
+     * @return new nyql instance. Caller must shut it down.
+     */
+    @SuppressWarnings("unchecked")
+    protected static NyQLInstance nyql(String db) {
+        Map<String, Object> configs = (Map<String, Object>) new JsonSlurper().parse(CONFIG_FILE);
+        configs.put("activate", db);
+        return NyQLInstance.create("test-" + db, configs);
+    }
+
     public void assertQueries(Object objects) {
-        activeDb = nyql().getConfigurations().getActivatedDb();
+        assertQueries(nyql(), objects);
+    }
+
+    public void assertQueries(NyQLInstance instance, Object objects) {
+        activeDb = instance.getConfigurations().getActivatedDb();
 
         Object val = objects;
         if (objects instanceof QScriptResult) {
@@ -142,7 +163,7 @@ public class AbstractTest {
     public static void setupTests() throws Exception {
         //if (NyQL.hasConfigured()) {
             //System.setProperty("com.virtusa.gto.insight.nyql.autoBootstrap", "true");
-            nyQLInstance = NyQLInstance.create("test", new File("./configs/nyql2.json"));
+            nyQLInstance = NyQLInstance.create("test", CONFIG_FILE);
         //}
     }
 
@@ -19,4 +19,8 @@ public class BulksTest extends AbstractTest {
     public void testBulkDelete() throws Exception {
         assertQueries(nyql().parse("bulks/bulkDeletes"));
     }
+
+    public void testBulkUpsert() throws Exception {
+        assertQueries(nyql().parse("bulks/bulkUpserts"));
+    }
 }
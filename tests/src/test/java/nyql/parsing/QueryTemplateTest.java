@@ -0,0 +1,61 @@
+package nyql.parsing;
+
+import com.virtusa.gto.nyql.QResultProxy;
+import com.virtusa.gto.nyql.model.QueryTemplate;
+import com.virtusa.gto.nyql.model.units.AParam;
+import com.virtusa.gto.nyql.model.units.NamedParam;
+import com.virtusa.gto.nyql.model.units.ParamList;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = {"parsing"})
+public class QueryTemplateTest {
+
+    public void testTemplateExpansion() {
+        QResultProxy proxy = new QResultProxy();
+        proxy.setQuery("SELECT * FROM film f WHERE f.id IN (::ids::) AND f.year = ? AND f.lang IN (::langs::)");
+        List<AParam> params = new ArrayList<>();
+        params.add(list("ids"));
+        params.add(named("year"));
+        params.add(list("langs"));
+        proxy.setOrderedParameters(params);
+
+        QueryTemplate template = proxy.getQueryTemplate();
+        Assert.assertSame(proxy.getQueryTemplate(), template);
+        Assert.assertEquals(template.getSlots(), new String[] { "ids", "langs" });
+        Assert.assertEquals(template.expand(new int[] { 2, 1 }),
+                "SELECT * FROM film f WHERE f.id IN (?, ?) AND f.year = ? AND f.lang IN (?)");
+        Assert.assertEquals(template.expand(new int[] { 0, 3 }),
+                "SELECT * FROM film f WHERE f.id IN (NULL) AND f.year = ? AND f.lang IN (?, ?, ?)");
+
+        proxy.setQuery("SELECT * FROM film");
+        Assert.assertNotSame(proxy.getQueryTemplate(), template);
+        Assert.assertFalse(proxy.getQueryTemplate().hasSlots());
+    }
+
+    public void testBucketSizes() {
+        Assert.assertEquals(QueryTemplate.bucketSize(0), 0);
+        Assert.assertEquals(QueryTemplate.bucketSize(1), 1);
+        Assert.assertEquals(QueryTemplate.bucketSize(3), 4);
+        Assert.assertEquals(QueryTemplate.bucketSize(8), 8);
+        Assert.assertEquals(QueryTemplate.bucketSize(9), 16);
+    }
+
+    private static AParam list(String name) {
+        ParamList param = new ParamList();
+        param.set__name(name);
+        return param;
+    }
+
+    private static AParam named(String name) {
+        NamedParam param = new NamedParam();
+        param.set__name(name);
+        return param;
+    }
+}
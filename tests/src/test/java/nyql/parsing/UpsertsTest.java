@@ -1,7 +1,9 @@
 package nyql.parsing;
 
+import com.virtusa.gto.nyql.engine.NyQLInstance;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,5 +29,18 @@ public class UpsertsTest extends AbstractTest {
         assertQueries(nyql().parse("upserts/insertOr", data));
     }
 
+    public void testNativeInsertOrLoad() throws Exception {
+        assertQueries(nyql().parse("upserts/insertOrNative"));
+
+        for (String db : Arrays.asList("pg", "mssql")) {
+            NyQLInstance instance = nyql(db);
+            try {
+                assertQueries(instance, instance.parse("upserts/insertOrNative"));
+            } finally {
+                instance.shutdown();
+            }
+        }
+    }
+
 
 }
@@ -0,0 +1,53 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import com.virtusa.gto.nyql.exceptions.NyException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class AsyncExecutionTest {
+
+    private final H2Database h2 = new H2Database("asyncExecution");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+        h2.insertSongs(5);
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testAsyncExecutions() throws Exception {
+        List<Object> results = nyQLInstance.executeAllAsync(Arrays.asList("songCount", "songs", "songCount"),
+                new HashMap<>()).get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(results.size(), 3);
+        Assert.assertEquals(((NyQLResult) results.get(0)).asLong(0, "total").longValue(), 5L);
+        Assert.assertEquals(((NyQLResult) results.get(1)).size(), 5);
+
+        CompletableFuture<Object> failed = nyQLInstance.executeAsync("noSuchScript");
+        try {
+            failed.get(30, TimeUnit.SECONDS);
+            Assert.fail("Execution of a missing script must fail!");
+        } catch (ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof NyException);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.exceptions.NyScriptExecutionException;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import com.virtusa.gto.nyql.engine.impl.QJdbcExecutor;
+import com.virtusa.gto.nyql.engine.impl.QJdbcExecutorOptions;
+import com.virtusa.gto.nyql.engine.pool.QJdbcPoolFetcher;
+import com.virtusa.gto.nyql.exceptions.NyException;
+import com.virtusa.gto.nyql.model.QScript;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class BatchChunksTest {
+
+    private final H2Database h2 = new H2Database("batchChunks");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testBatchChunks() throws Exception {
+        QJdbcExecutorOptions options = new QJdbcExecutorOptions();
+        options.setBatchSize(2);
+        options.setBatchCommitInterval(2);
+
+        // five records sent in three chunks from an iterator
+        Map<String, Object> data = new HashMap<>();
+        data.put("__batch__", ((List<?>) H2Database.albums("c", 5).get("__batch__")).iterator());
+        NyQLResult result = executeChunked("albumBulkInsert", data, options);
+        Assert.assertEquals(result.affectedCounts(), Arrays.asList(1, 1, 1, 1, 1));
+        Assert.assertEquals(result.affectedKeys().size(), 5);
+        Assert.assertEquals(countAlbums("c"), 5);
+
+        // fourth record is too long, so only the first chunk remains committed
+        options.setBatchCommitInterval(1);
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add(Collections.<String, Object>singletonMap("title", i == 3 ? String.format("d%0150d", i) : "d" + i));
+        }
+        boolean[] closed = new boolean[1];
+        data.put("__batch__", records.stream().onClose(() -> closed[0] = true));
+        try {
+            executeChunked("albumBulkInsert", data, options);
+            Assert.fail("Batch having a too long value must fail!");
+        } catch (NyScriptExecutionException ex) {
+            Assert.assertTrue(ex.getMessage().contains("after committing 2 records"), ex.getMessage());
+        }
+        Assert.assertTrue(closed[0]);
+        Assert.assertEquals(countAlbums("d"), 2);
+    }
+
+    public void testInvalidBatchData() throws Exception {
+        QJdbcExecutorOptions options = new QJdbcExecutorOptions();
+        options.setBatchSize(2);
+
+        // nothing has been executed, hence reported as it is
+        try {
+            executeChunked("albumBulkInsert", new HashMap<>(), options);
+            Assert.fail("Batch without data must fail!");
+        } catch (NyScriptExecutionException ex) {
+            Assert.assertTrue(ex.getMessage().startsWith("No batch data"), ex.getMessage());
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("__batch__", Collections.singletonList(Collections.singletonMap("name", "e0")));
+        try {
+            executeChunked("albumBulkInsert", data, options);
+            Assert.fail("Batch having a record without title must fail!");
+        } catch (NyException ex) {
+            Assert.assertFalse(ex.getMessage().contains("after committing"), ex.getMessage());
+        }
+
+        // an empty batch executes nothing
+        data.put("__batch__", Collections.emptyList());
+        Assert.assertTrue(executeChunked("albumBulkInsert", data, options).affectedCounts().isEmpty());
+        Assert.assertEquals(countAlbums("e"), 0);
+    }
+
+    private NyQLResult executeChunked(String scriptName, Map<String, Object> data,
+                                      QJdbcExecutorOptions options) throws Exception {
+        QScript script = nyQLInstance.parse(scriptName, data);
+        QJdbcPoolFetcher fetcher = () -> {
+            try {
+                return h2.connect();
+            } catch (SQLException ex) {
+                throw new NyException("Unable to connect to H2!", ex);
+            }
+        };
+        try {
+            return (NyQLResult) new QJdbcExecutor(fetcher, false, nyQLInstance.getConfigurations(), options).execute(script);
+        } finally {
+            script.free();
+        }
+    }
+
+    private int countAlbums(String prefix) throws Exception {
+        return h2.queryInt("SELECT COUNT(*) FROM \"Album\" WHERE \"title\" LIKE '" + prefix + "%'");
+    }
+}
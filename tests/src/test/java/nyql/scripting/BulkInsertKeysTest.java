@@ -0,0 +1,45 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class BulkInsertKeysTest {
+
+    private final H2Database h2 = new H2Database("bulkInsertKeys");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testBulkInsertKeys() throws Exception {
+        NyQLResult result = nyQLInstance.execute("albumBulkInsert", H2Database.albums("a", 3));
+        Assert.assertEquals(result.affectedCounts(), Arrays.asList(1, 1, 1));
+        Assert.assertEquals(result.affectedKeys().size(), 3);
+
+        Set<Object> keys = new HashSet<>(result.affectedKeys());
+        result = nyQLInstance.execute("albumMultiRowInsert", H2Database.albums("b", 3));
+        Assert.assertEquals(result.affectedCounts(), Arrays.asList(2, 1));
+        Assert.assertEquals(result.affectedKeys().size(), 3);
+        keys.addAll(result.affectedKeys());
+        Assert.assertEquals(keys.size(), 6);
+    }
+}
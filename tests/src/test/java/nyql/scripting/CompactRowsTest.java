@@ -0,0 +1,89 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import com.virtusa.gto.nyql.engine.impl.NyQLRow;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class CompactRowsTest {
+
+    private final H2Database h2 = new H2Database("compactRows");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+        h2.insertSongs(5);
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testCompactRows() throws Exception {
+        NyQLResult result = nyQLInstance.execute("songs");
+        Assert.assertEquals(result.size(), 5);
+        Assert.assertTrue(result.get(0) instanceof NyQLRow);
+        Assert.assertSame(((NyQLRow) result.get(0)).getSchema(), ((NyQLRow) result.get(4)).getSchema());
+
+        Map<String, Object> row = result.get(1);
+        Assert.assertEquals(row.get("title"), "song-1");
+        Assert.assertEquals(result.asString(1, "title"), "song-1");
+
+        row.put("rank", 2);
+        Assert.assertEquals(row.size(), 2);
+        Assert.assertEquals(row.get("rank"), 2);
+        row.remove("title");
+        Assert.assertFalse(row.containsKey("title"));
+        Assert.assertEquals(new ArrayList<>(row.keySet()), Arrays.asList("rank"));
+
+        Assert.assertTrue(nyQLInstance.executeToJSON("songs").contains("\"title\":\"song-4\""));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSerializeRows() throws Exception {
+        NyQLResult result = nyQLInstance.execute("songs");
+        Map<String, Object> kept = result.get(2);
+        Map<String, Object> removed = result.get(3);
+        removed.put("rank", 3);
+        removed.remove("title");
+
+        Map<String, Object> keptCopy = (Map<String, Object>) roundTrip(kept);
+        Assert.assertTrue(keptCopy instanceof NyQLRow);
+        Assert.assertEquals(keptCopy, kept);
+        Assert.assertEquals(keptCopy.get("title"), "song-2");
+
+        Map<String, Object> removedCopy = (Map<String, Object>) roundTrip(removed);
+        Assert.assertEquals(removedCopy, removed);
+        Assert.assertFalse(removedCopy.containsKey("title"));
+        Assert.assertNull(removedCopy.get("title"));
+        Assert.assertEquals(removedCopy.size(), 1);
+        Assert.assertEquals(new ArrayList<>(removedCopy.keySet()), Arrays.asList("rank"));
+    }
+
+    private static Object roundTrip(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(object);
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return input.readObject();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.configs.ConfigParser;
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared H2 fixture of script execution tests. Each test class gets its own in-memory
+ * database having the test tables, and an instance executing the h2 scripts on it.
+ *
+ * @author IWEERARATHNA
+ */
+class H2Database {
+
+    private final String name;
+    private final String url;
+
+    H2Database(String databaseName) {
+        name = databaseName;
+        url = "jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1";
+    }
+
+    @SuppressWarnings("unchecked")
+    NyQLInstance startup() throws Exception {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE \"Song\" (\"id\" INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "\"title\" VARCHAR(100), \"released\" INT, \"deleted\" BOOLEAN)");
+            statement.execute("CREATE TABLE \"Genre\" (\"id\" INT PRIMARY KEY, \"name\" VARCHAR(50))");
+            statement.execute("CREATE TABLE \"Album\" (\"id\" INT AUTO_INCREMENT PRIMARY KEY, \"title\" VARCHAR(100))");
+        }
+
+        Map<String, Object> configs = ConfigParser.parseAndResolve(new File("./configs/nyql-h2.json"));
+        ((Map<String, Object>) configs.get("executor")).put("url", url);
+        return NyQLInstance.create("h2-" + name, configs);
+    }
+
+    void teardown(NyQLInstance nyQLInstance) throws SQLException {
+        nyQLInstance.shutdown();
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, "sa", "");
+    }
+
+    /**
+     * Inserts songs titled from 'song-0', released from year 2000 onwards.
+     */
+    void insertSongs(int count) throws SQLException {
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO \"Song\" (\"title\", \"released\", \"deleted\") VALUES (?, ?, FALSE)")) {
+            for (int i = 0; i < count; i++) {
+                statement.setString(1, "song-" + i);
+                statement.setInt(2, 2000 + i);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    int queryInt(String query) throws SQLException {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    static Map<String, Object> songs(int from, int to) {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("title", "song-" + i);
+            record.put("year", 2000 + i);
+            records.add(record);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("__batch__", records);
+        return data;
+    }
+
+    static Map<String, Object> albums(String prefix, int count) {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("title", prefix + i);
+            records.add(record);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("__batch__", records);
+        return data;
+    }
+}
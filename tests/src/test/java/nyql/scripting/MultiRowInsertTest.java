@@ -0,0 +1,44 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class MultiRowInsertTest {
+
+    private final H2Database h2 = new H2Database("multiRowInsert");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testMultiRowInsert() throws Exception {
+        // two rows per statement, so two statements in total
+        NyQLResult result = nyQLInstance.execute("multiRowInserts", H2Database.songs(0, 3));
+        Assert.assertEquals(result.affectedCounts(), Arrays.asList(2, 1));
+
+        // translated query is reused, and still must be executed as multi-row inserts
+        result = nyQLInstance.execute("multiRowInserts", H2Database.songs(3, 5));
+        Assert.assertEquals(result.affectedCounts(), Collections.singletonList(2));
+
+        NyQLResult count = nyQLInstance.execute("songCount");
+        Assert.assertEquals(count.asLong(0, "total").longValue(), 5L);
+    }
+}
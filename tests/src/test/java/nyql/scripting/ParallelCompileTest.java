@@ -0,0 +1,66 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.configs.ConfigParser;
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.repo.Caching;
+import com.virtusa.gto.nyql.engine.repo.QScriptsFolder;
+import com.virtusa.gto.nyql.model.QSession;
+import com.virtusa.gto.nyql.model.QSource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * @author iweerarathna
+ */
+@Test(groups = "scripts")
+public class ParallelCompileTest {
+
+    public void testParallelCompilation() throws Exception {
+        QScriptsFolder scriptsFolder = new QScriptsFolder(new File("./scripts"));
+        scriptsFolder.setInclusionPatterns("");
+        scriptsFolder.setExclusionPatterns("scripts/violations/**");
+        Collection<QSource> sources = scriptsFolder.scanDir().allSources();
+
+        Map<String, String> sequential = compiledClasses(1, scriptsFolder, sources);
+        Map<String, String> parallel = compiledClasses(4, scriptsFolder, sources);
+
+        Assert.assertEquals(sequential.size(), sources.size());
+        Assert.assertEquals(parallel, sequential);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> compiledClasses(int threads, QScriptsFolder scriptsFolder,
+                                                       Collection<QSource> sources) throws Exception {
+        Map<String, Object> configs = ConfigParser.parseAndResolve(new File("./configs/nyql2.json"));
+        Map<String, Object> caching = (Map<String, Object>) configs.get("caching");
+        caching.put("compileThreads", threads);
+
+        Map<String, String> classes = new TreeMap<>();
+        try (NyQLInstance nyQLInstance = NyQLInstance.create("compile-" + threads, configs);
+             Caching cache = new Caching(nyQLInstance.getConfigurations(), scriptsFolder)) {
+            cache.compileAllScripts(sources);
+            // all scripts must be compiled upfront, not lazily when first used
+            Assert.assertEquals(new TreeSet<>(cache.compiledScriptIds()), ids(sources));
+            for (QSource source : sources) {
+                QSession session = QSession.create(nyQLInstance.getConfigurations(), source.getId());
+                classes.put(source.getId(), cache.getCompiledScript(source, session).getClass().getName());
+            }
+        }
+        return classes;
+    }
+
+    private static Set<String> ids(Collection<QSource> sources) {
+        Set<String> ids = new TreeSet<>();
+        for (QSource source : sources) {
+            ids.add(source.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,93 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class ParallelRunsTest {
+
+    private static final AtomicInteger NAPPING = new AtomicInteger(0);
+    private static final AtomicInteger MAX_NAPPING = new AtomicInteger(0);
+
+    private final H2Database h2 = new H2Database("parallelRuns");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+        h2.insertSongs(5);
+        try (Connection connection = h2.connect();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS NAP FOR \"nyql.scripting.ParallelRunsTest.nap\"");
+        }
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testParallelRuns() throws Exception {
+        List<?> results = (List<?>) nyQLInstance.execute("songDashboard");
+        Assert.assertEquals(results.size(), 3);
+        Assert.assertEquals(((NyQLResult) results.get(0)).asLong(0, "total").longValue(), 5L);
+        Assert.assertEquals(((NyQLResult) results.get(1)).size(), 5);
+        Assert.assertEquals(((NyQLResult) results.get(2)).asLong(0, "total").longValue(), 5L);
+
+        Assert.assertEquals(nyQLInstance.execute("parallelInTransaction"), Boolean.TRUE);
+        Assert.assertEquals(nyQLInstance.execute("parallelInNestedTransaction"), Boolean.TRUE);
+    }
+
+    public void testParallelRunsWithSessionVariables() throws Exception {
+        Map<String, Object> data = new HashMap<>();
+        data.put("filterByYear", true);
+        data.put("fromYear", 2003);
+        List<?> results = (List<?>) nyQLInstance.execute("yearlyDashboard", data);
+        Assert.assertEquals(results.size(), 3);
+        for (Object result : results) {
+            Assert.assertEquals(((NyQLResult) result).size(), 2);
+        }
+    }
+
+    public void testParallelRunsWithinPoolSize() throws Exception {
+        // six scripts want to run at once, but the pool only has two connections
+        MAX_NAPPING.set(0);
+        List<Object> results = nyQLInstance.executeAllAsync(Arrays.asList("slowDashboard", "slowDashboard"),
+                new HashMap<>()).get(60, TimeUnit.SECONDS);
+        Assert.assertEquals(results.size(), 2);
+        for (Object result : results) {
+            Assert.assertEquals(((List<?>) result).size(), 3);
+        }
+        Assert.assertTrue(MAX_NAPPING.get() <= 2, "Connections in use exceeded the pool size: " + MAX_NAPPING.get());
+    }
+
+    /**
+     * Holds the connection for a while, recording how many connections are holding at once.
+     */
+    public static int nap(int millis) throws InterruptedException {
+        int napping = NAPPING.incrementAndGet();
+        MAX_NAPPING.accumulateAndGet(napping, Math::max);
+        try {
+            Thread.sleep(millis);
+        } finally {
+            NAPPING.decrementAndGet();
+        }
+        return millis;
+    }
+}
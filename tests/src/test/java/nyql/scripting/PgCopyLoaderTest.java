@@ -0,0 +1,167 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.QResultProxy;
+import com.virtusa.gto.nyql.db.postgre.PgCopyLoader;
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import com.virtusa.gto.nyql.engine.impl.QJdbcExecutor;
+import com.virtusa.gto.nyql.model.QScript;
+import com.virtusa.gto.nyql.model.QScriptResult;
+import com.virtusa.gto.nyql.model.QSession;
+import com.virtusa.gto.nyql.utils.QueryType;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class PgCopyLoaderTest {
+
+    private static final String COPY_QUERY = "COPY \"Song\" (\"title\", \"released\") FROM STDIN WITH (FORMAT csv)";
+
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() {
+        nyQLInstance = NyQLInstance.create("pg-copy-test", new File("./configs/nyql-pg.json"));
+    }
+
+    @AfterClass
+    public void teardown() {
+        nyQLInstance.shutdown();
+    }
+
+    public void testCopyLoader() throws Exception {
+        List<?> proxies = (List<?>) ((QScriptResult) nyQLInstance.parse("songCopyInserts")).getScriptResult();
+
+        Object loader = ((QResultProxy) proxies.get(0)).getRawObject();
+        Assert.assertTrue(loader instanceof PgCopyLoader);
+        Assert.assertEquals(((PgCopyLoader) loader).getCopyQuery(), COPY_QUERY);
+        Assert.assertNull(((QResultProxy) proxies.get(1)).getRawObject());
+        Assert.assertNull(((QResultProxy) proxies.get(2)).getRawObject());
+
+        MockCopyManager copyManager = new MockCopyManager();
+        PgCopyLoader mockLoader = mockLoader((PgCopyLoader) loader, copyManager);
+
+        Map<String, Object> session = new HashMap<>();
+        session.put("year", 1999);
+        long count = mockLoader.load(null, Arrays.<Map>asList(
+                song("Lose Yourself", 2002),
+                song("Say \"Hi\", again", null),
+                song("", 2010),
+                song(null, 2011),
+                title("I want it that way")).iterator(), session);
+
+        Assert.assertEquals(count, 5L);
+        Assert.assertEquals(copyManager.query, COPY_QUERY);
+        Assert.assertEquals(copyManager.data, "Lose Yourself,2002\n" +
+                "\"Say \"\"Hi\"\", again\",\n" +
+                "\"\",2010\n" +
+                ",2011\n" +
+                "I want it that way,1999\n");
+    }
+
+    public void testCachedCopyLoader() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            nyQLInstance.execute("songCopyInsert", batch(song("song-" + i, 2000 + i)));
+        }
+
+        // loader must survive the executions of the pre-translated query
+        QScript script = nyQLInstance.parse("songCopyInsert");
+        Assert.assertTrue(script.getProxy().getRawObject() instanceof PgCopyLoader);
+    }
+
+    public void testExecutorDispatch() throws Exception {
+        QScript parsed = nyQLInstance.parse("songCopyInsert");
+        MockCopyManager copyManager = new MockCopyManager();
+
+        QResultProxy proxy = new QResultProxy();
+        proxy.setQuery(parsed.getProxy().getQuery());
+        proxy.setOrderedParameters(parsed.getProxy().getOrderedParameters());
+        proxy.setQueryType(QueryType.BULK_INSERT);
+        proxy.setRawObject(mockLoader((PgCopyLoader) parsed.getProxy().getRawObject(), copyManager));
+
+        QSession session = QSession.create(nyQLInstance.getConfigurations(), "songCopyInsert");
+        session.getSessionVariables().putAll(batch(song("a", 2001), song("b", 2002), song("c", 2003)));
+        QScript script = new QScript();
+        script.setProxy(proxy);
+        script.setqSession(session);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:pgcopy", "sa", "")) {
+            copyManager.connection = connection;
+            NyQLResult result = (NyQLResult) new QJdbcExecutor(connection, nyQLInstance.getConfigurations()).execute(script);
+
+            Assert.assertEquals(result.affectedCounts(), Collections.singletonList(3));
+            Assert.assertFalse(copyManager.autoCommit);
+            Assert.assertTrue(connection.getAutoCommit());
+            Assert.assertEquals(copyManager.data, "a,2001\nb,2002\nc,2003\n");
+        }
+    }
+
+    private static PgCopyLoader mockLoader(PgCopyLoader loader, MockCopyManager copyManager) {
+        return new PgCopyLoader(loader.getCopyQuery(), loader.getColumns()) {
+            @Override
+            protected Object copyManager(Connection connection) {
+                return copyManager;
+            }
+        };
+    }
+
+    @SafeVarargs
+    private static Map<String, Object> batch(Map<String, Object>... records) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("__batch__", Arrays.asList(records));
+        return data;
+    }
+
+    private static Map<String, Object> song(String title, Integer year) {
+        Map<String, Object> record = title(title);
+        record.put("year", year);
+        return record;
+    }
+
+    private static Map<String, Object> title(String title) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("title", title);
+        return record;
+    }
+
+    public static class MockCopyManager {
+
+        private Connection connection;
+        private boolean autoCommit = true;
+        private String query;
+        private String data;
+
+        public long copyIn(String sql, Reader reader) throws IOException, SQLException {
+            if (connection != null) {
+                autoCommit = connection.getAutoCommit();
+            }
+            query = sql;
+            StringBuilder builder = new StringBuilder();
+            char[] buffer = new char[7];
+            int read;
+            while ((read = reader.read(buffer, 0, buffer.length)) > 0) {
+                builder.append(buffer, 0, read);
+            }
+            data = builder.toString();
+            return data.split("\n").length;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.model.QScript;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class PreTranslatedQueriesTest {
+
+    private final H2Database h2 = new H2Database("preTranslatedQueries");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testPreTranslatedQueries() throws Exception {
+        QScript first = nyQLInstance.parse("songs");
+        QScript second = nyQLInstance.parse("songs");
+        Assert.assertSame(first.getProxy(), second.getProxy());
+        Assert.assertTrue(first.getProxy().getQuery().contains("ORDER BY"));
+
+        // shape cached scripts depend on session variables
+        Map<String, Object> data = new HashMap<>();
+        data.put("filterByYear", true);
+        Assert.assertNotSame(nyQLInstance.parse("songsByYear", data).getProxy(),
+                nyQLInstance.parse("songsByYear", new HashMap<>()).getProxy());
+    }
+}
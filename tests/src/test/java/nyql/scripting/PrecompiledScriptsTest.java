@@ -0,0 +1,72 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.configs.ConfigParser;
+import com.virtusa.gto.nyql.configs.Configurations;
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.repo.QScriptsFolder;
+import com.virtusa.gto.nyql.engine.repo.ScriptPrecompiler;
+import com.virtusa.gto.nyql.model.QScript;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarFile;
+
+/**
+ * @author iweerarathna
+ */
+@Test(groups = "scripts")
+public class PrecompiledScriptsTest {
+
+    @SuppressWarnings("unchecked")
+    public void testPrecompiledScripts() throws Exception {
+        File bundle = new File("./target/nyql-precompiled/h2-scripts.jar");
+        QScriptsFolder scriptsFolder = new QScriptsFolder(new File("./scripts/h2"));
+        scriptsFolder.setInclusionPatterns("");
+        scriptsFolder.setExclusionPatterns("");
+
+        Set<String> scriptIds = new TreeSet<>();
+        for (File file : new File("./scripts/h2").listFiles((dir, name) -> name.endsWith(".groovy"))) {
+            scriptIds.add(file.getName().substring(0, file.getName().length() - ".groovy".length()));
+        }
+
+        ScriptPrecompiler precompiler = new ScriptPrecompiler(Configurations.builtInImports(), getClass().getClassLoader());
+        int count = precompiler.precompile(scriptsFolder.scanDir().allSources(), bundle);
+        Assert.assertEquals(count, scriptIds.size());
+
+        // every script must be indexed against a class within the bundle
+        try (JarFile jar = new JarFile(bundle)) {
+            Properties index = new Properties();
+            try (InputStream inputStream = jar.getInputStream(jar.getEntry("META-INF/nyql/scripts.index"))) {
+                index.load(inputStream);
+            }
+            index.remove("@nyqlVersion");
+            Assert.assertEquals(new TreeSet<>(index.stringPropertyNames()), scriptIds);
+            for (String scriptId : index.stringPropertyNames()) {
+                String mainClass = index.getProperty(scriptId);
+                Assert.assertNotNull(jar.getEntry(mainClass.replace('.', '/') + ".class"), mainClass);
+            }
+        }
+
+        Map<String, Object> configs = ConfigParser.parseAndResolve(new File("./configs/nyql-h2.json"));
+        Map<String, Object> repository = (Map<String, Object>) configs.get("repository");
+        repository.put("mapper", "precompiled");
+        Map<String, Object> mapperArgs = new HashMap<>();
+        mapperArgs.put("bundle", bundle.getPath());
+        repository.put("mapperArgs", mapperArgs);
+
+        try (NyQLInstance nyQLInstance = NyQLInstance.create("h2-precompiled", configs)) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("filterByYear", true);
+            QScript script = nyQLInstance.parse("songsByYear", data);
+            Assert.assertTrue(script.getProxy().getQuery().contains("WHERE"));
+            Assert.assertFalse(nyQLInstance.parse("songsByYear").getProxy().getQuery().contains("WHERE"));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class PrefetchedPaginationTest {
+
+    private final H2Database h2 = new H2Database("prefetchedPagination");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+        h2.insertSongs(5);
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testPrefetchedPagination() throws Exception {
+        List<Integer> pageSizes = new ArrayList<>();
+        for (NyQLResult page : nyQLInstance.paginate("songs", 2, new HashMap<>(), 2)) {
+            pageSizes.add(page.size());
+        }
+        Assert.assertEquals(pageSizes, Arrays.asList(2, 2, 1));
+
+        // stop consuming in the middle
+        Iterable<NyQLResult> pages = nyQLInstance.paginate("songs", 1, new HashMap<>(), 1);
+        Assert.assertEquals(pages.iterator().next().asString(0, "title"), "song-0");
+        ((Closeable) pages).close();
+        Assert.assertFalse(pages.iterator().hasNext());
+    }
+
+    public void testCloseLeavesConnectionUsable() throws Exception {
+        // close repeatedly while pages are still being read, more times than the pool size
+        for (int i = 0; i < 12; i++) {
+            Iterable<NyQLResult> pages = nyQLInstance.paginate("songs", 1, new HashMap<>(), 1);
+            Assert.assertEquals(pages.iterator().next().size(), 1);
+            ((Closeable) pages).close();
+        }
+
+        // readers stop on their own without being interrupted, and return their connections
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("nyql-page-prefetch-")) {
+                thread.join(5000);
+                Assert.assertFalse(thread.isAlive(), thread.getName());
+            }
+        }
+        NyQLResult songs = nyQLInstance.execute("songs");
+        Assert.assertEquals(songs.size(), 5);
+    }
+}
@@ -0,0 +1,101 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.configs.ConfigParser;
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.exceptions.NyScriptNotFoundException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author iweerarathna
+ */
+@Test(groups = "scripts")
+public class ScriptReloadTest {
+
+    private static final String SCRIPT = "$DSL.select {\n    TARGET (Song.alias(\"s\"))\n    FETCH (s.%s)\n}\n";
+    private static final String CACHED_SCRIPT = "@Field do_cache = true\n" + SCRIPT;
+    private static final String PARENT_SCRIPT = "@Field do_cache = true\n$DSL.select {\n    TARGET (Song.alias(\"p\"))\n" +
+            "    WHERE { IN (p.title, $IMPORT(\"watchedPart\")) }\n}\n";
+    private static final long WATCH_TIMEOUT = 10000;
+
+    @SuppressWarnings("unchecked")
+    public void testReloadScript() throws Exception {
+        File dir = new File("./target/reload-scripts");
+        dir.mkdirs();
+        File script = new File(dir, "reloadable.groovy");
+        Files.write(script.toPath(), String.format(SCRIPT, "title").getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Object> configs = ConfigParser.parseAndResolve(new File("./configs/nyql-h2.json"));
+        Map<String, Object> caching = (Map<String, Object>) configs.get("caching");
+        caching.put("allowRecompilation", true);
+        caching.remove("classCacheDir");
+        Map<String, Object> mapperArgs = new HashMap<>();
+        mapperArgs.put("baseDir", dir.getPath());
+        ((Map<String, Object>) configs.get("repository")).put("mapperArgs", mapperArgs);
+
+        try (NyQLInstance nyQLInstance = NyQLInstance.create("h2-reload", configs)) {
+            Assert.assertTrue(nyQLInstance.parse("reloadable").getProxy().getQuery().contains("\"title\""));
+
+            Files.write(script.toPath(), String.format(SCRIPT, "released").getBytes(StandardCharsets.UTF_8));
+            Assert.assertTrue(nyQLInstance.parse("reloadable").getProxy().getQuery().contains("\"title\""));
+
+            nyQLInstance.recompileScript("reloadable");
+            Assert.assertTrue(nyQLInstance.parse("reloadable").getProxy().getQuery().contains("\"released\""));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testWatchedScripts() throws Exception {
+        File dir = new File("./target/watch-scripts");
+        dir.mkdirs();
+        File part = new File(dir, "watchedPart.groovy");
+        Files.write(part.toPath(), String.format(CACHED_SCRIPT, "title").getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(dir, "watchedParent.groovy").toPath(), PARENT_SCRIPT.getBytes(StandardCharsets.UTF_8));
+        File added = new File(dir, "watchedNew.groovy");
+        Files.deleteIfExists(added.toPath());
+
+        Map<String, Object> configs = ConfigParser.parseAndResolve(new File("./configs/nyql-h2.json"));
+        Map<String, Object> caching = (Map<String, Object>) configs.get("caching");
+        caching.put("watchScripts", true);
+        caching.put("watchDebounceMs", 100);
+        caching.remove("classCacheDir");
+        Map<String, Object> mapperArgs = new HashMap<>();
+        mapperArgs.put("baseDir", dir.getPath());
+        ((Map<String, Object>) configs.get("repository")).put("mapperArgs", mapperArgs);
+
+        try (NyQLInstance nyQLInstance = NyQLInstance.create("h2-watch", configs)) {
+            Assert.assertTrue(nyQLInstance.parse("watchedParent").getProxy().getQuery().contains("\"title\""));
+
+            // dependent cached query must be invalidated as well
+            Files.write(part.toPath(), String.format(CACHED_SCRIPT, "released").getBytes(StandardCharsets.UTF_8));
+            Assert.assertTrue(waitForQuery(nyQLInstance, "watchedParent", "\"released\""));
+            Assert.assertTrue(nyQLInstance.parse("watchedPart").getProxy().getQuery().contains("\"released\""));
+
+            Files.write(added.toPath(), String.format(SCRIPT, "year").getBytes(StandardCharsets.UTF_8));
+            Assert.assertTrue(waitForQuery(nyQLInstance, "watchedNew", "\"year\""));
+        } finally {
+            Files.deleteIfExists(added.toPath());
+        }
+    }
+
+    private static boolean waitForQuery(NyQLInstance nyQLInstance, String scriptId, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + WATCH_TIMEOUT;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                if (nyQLInstance.parse(scriptId).getProxy().getQuery().contains(expected)) {
+                    return true;
+                }
+            } catch (NyScriptNotFoundException ignored) {
+                // not yet notified
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+}
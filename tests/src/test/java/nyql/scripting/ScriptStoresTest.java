@@ -0,0 +1,134 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.configs.ConfigParser;
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.repo.Caching;
+import com.virtusa.gto.nyql.engine.repo.QScriptsFolder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Persisted script classes and cache analyses must be reused across restarts,
+ * and be ignored for a script once its content changes.
+ *
+ * @author iweerarathna
+ */
+@Test(groups = "scripts")
+public class ScriptStoresTest {
+
+    private static final File BASE_DIR = new File("./target/script-stores");
+    private static final File SCRIPTS_DIR = new File(BASE_DIR, "scripts");
+    private static final File STORE_DIR = new File(BASE_DIR, "classes");
+    private static final File EMPTY_DIR = new File(BASE_DIR, "empty");
+    private static final String FINGERPRINTS = "validation.fingerprints";
+
+    public void testReuseAndInvalidation() throws Exception {
+        deleteAll(BASE_DIR.toPath());
+        Assert.assertTrue(SCRIPTS_DIR.mkdirs());
+        Assert.assertTrue(EMPTY_DIR.mkdirs());
+        writeScript("films", "$DSL.select { TARGET (Film.alias(\"f\")) }");
+        writeScript("actors", "$DSL.select { TARGET (Actor.alias(\"ac\")) }");
+
+        Assert.assertEquals(parse("films"), "SELECT * FROM `Film` f");
+        Map<String, Long> initial = ageEntries();
+        Assert.assertTrue(initial.containsKey(FINGERPRINTS));
+        Assert.assertEquals(initial.size(), 3);
+
+        // nothing is compiled or analysed again after a restart
+        Assert.assertEquals(loadedFromStore(), new TreeSet<>(Arrays.asList("actors", "films")));
+        Assert.assertEquals(parse("films"), "SELECT * FROM `Film` f");
+        Assert.assertEquals(entries(), initial);
+
+        // only the changed script is compiled and analysed again
+        writeScript("films", "$DSL.select { TARGET (Film.alias(\"f\")); FETCH (f.title) }");
+        Assert.assertEquals(loadedFromStore(), Collections.singleton("actors"));
+        Assert.assertEquals(parse("films"), "SELECT f.title FROM `Film` f");
+        Map<String, Long> changed = entries();
+        Assert.assertEquals(changed.size(), initial.size() + 1);
+        Assert.assertNotEquals(changed.get(FINGERPRINTS), initial.get(FINGERPRINTS));
+        for (Map.Entry<String, Long> entry : initial.entrySet()) {
+            if (!FINGERPRINTS.equals(entry.getKey())) {
+                Assert.assertEquals(changed.get(entry.getKey()), entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    private static String parse(String scriptId) throws Exception {
+        try (NyQLInstance nyQLInstance = NyQLInstance.create("script-stores", configs(SCRIPTS_DIR))) {
+            return nyQLInstance.parse(scriptId).getProxy().getQuery().replaceAll("\\s+", " ").trim();
+        }
+    }
+
+    /**
+     * Compiles all scripts using the store, and returns scripts loaded without compiling.
+     * The instance itself maps no scripts, so that it does not populate the store beforehand.
+     */
+    private static Set<String> loadedFromStore() throws Exception {
+        QScriptsFolder scriptsFolder = new QScriptsFolder(SCRIPTS_DIR);
+        scriptsFolder.setInclusionPatterns("");
+        scriptsFolder.setExclusionPatterns("");
+        try (NyQLInstance nyQLInstance = NyQLInstance.create("script-store-loads", configs(EMPTY_DIR));
+             Caching cache = new Caching(nyQLInstance.getConfigurations(), scriptsFolder)) {
+            cache.compileAllScripts(scriptsFolder.scanDir().allSources());
+            return new TreeSet<>(cache.storeLoadedScriptIds());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> configs(File scriptsDir) throws Exception {
+        Map<String, Object> configs = ConfigParser.parseAndResolve(new File("./configs/nyql2.json"));
+        Map<String, Object> caching = (Map<String, Object>) configs.get("caching");
+        caching.put("classCacheDir", STORE_DIR.getPath());
+        Map<String, Object> repository = (Map<String, Object>) configs.get("repository");
+        Map<String, Object> mapperArgs = (Map<String, Object>) repository.get("mapperArgs");
+        mapperArgs.put("baseDir", scriptsDir.getPath());
+        mapperArgs.remove("exclusions");
+        return configs;
+    }
+
+    /**
+     * Sets modification time of all store entries to the past, so that rewriting
+     * any of them is detected regardless of file system time resolution.
+     */
+    private static Map<String, Long> ageEntries() {
+        long past = System.currentTimeMillis() - 3600_000L;
+        for (File file : STORE_DIR.listFiles()) {
+            Assert.assertTrue(file.setLastModified(past));
+        }
+        return entries();
+    }
+
+    private static Map<String, Long> entries() {
+        Map<String, Long> entries = new TreeMap<>();
+        for (File file : STORE_DIR.listFiles()) {
+            entries.put(file.getName(), file.lastModified());
+        }
+        return entries;
+    }
+
+    private static void writeScript(String scriptId, String content) throws Exception {
+        Files.write(new File(SCRIPTS_DIR, scriptId + ".groovy").toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void deleteAll(Path dir) throws Exception {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
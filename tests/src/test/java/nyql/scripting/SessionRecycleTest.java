@@ -0,0 +1,40 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.model.QScript;
+import com.virtusa.gto.nyql.model.QSession;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class SessionRecycleTest {
+
+    private final H2Database h2 = new H2Database("sessionRecycle");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testRecycledSessions() throws Exception {
+        QScript first = nyQLInstance.parse("songCount");
+        QSession session = first.getqSession();
+        first.free();
+
+        QScript second = nyQLInstance.parse("songCount");
+        Assert.assertSame(second.getqSession(), session);
+        Assert.assertEquals(second.getqSession().currentActiveScript(), "songCount");
+        second.free();
+    }
+}
@@ -0,0 +1,47 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class ShapeCacheTest {
+
+    private final H2Database h2 = new H2Database("shapeCache");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+        h2.insertSongs(5);
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testShapeCachedQueries() throws Exception {
+        Map<String, Object> data = new HashMap<>();
+        data.put("filterByYear", true);
+        data.put("fromYear", 2003);
+        Assert.assertEquals(((NyQLResult) nyQLInstance.execute("songsByYear", data)).size(), 2);
+        Assert.assertEquals(((NyQLResult) nyQLInstance.execute("songsByYear", new HashMap<>())).size(), 5);
+
+        // same shapes, served from cache with new parameter values
+        data.put("fromYear", 2002);
+        Assert.assertEquals(((NyQLResult) nyQLInstance.execute("songsByYear", data)).size(), 3);
+        Assert.assertTrue(nyQLInstance.parse("songsByYear", data).getProxy().getQuery().contains("WHERE"));
+        Assert.assertFalse(nyQLInstance.parse("songsByYear", new HashMap<>()).getProxy().getQuery().contains("WHERE"));
+        Assert.assertEquals(((NyQLResult) nyQLInstance.execute("songsByYear", new HashMap<>())).size(), 5);
+    }
+}
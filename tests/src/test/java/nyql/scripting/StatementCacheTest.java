@@ -0,0 +1,80 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import com.virtusa.gto.nyql.engine.impl.QJdbcExecutorFactory;
+import com.virtusa.gto.nyql.engine.impl.QJdbcStatementCache;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class StatementCacheTest {
+
+    private final H2Database h2 = new H2Database("statementCache");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testStatementCache() throws Exception {
+        QJdbcStatementCache cache = new QJdbcStatementCache(2);
+        String query = "SELECT COUNT(*) FROM \"Song\"";
+        try (Connection first = h2.connect();
+             Connection second = h2.connect()) {
+            PreparedStatement statement = cache.prepare(first, query, false);
+            cache.release(first, statement);
+            Assert.assertSame(cache.prepare(first, query, false), statement);
+            Assert.assertNotSame(cache.prepare(first, query, true), statement);
+            Assert.assertNotSame(cache.prepare(second, query, false), statement);
+            Assert.assertEquals(cache.getConnectionCount(), 2);
+
+            // explicit eviction closes statements of the connection
+            cache.evictAll(first);
+            Assert.assertTrue(statement.isClosed());
+            Assert.assertEquals(cache.getConnectionCount(), 1);
+
+            // connections closed without eviction are dropped on next lookup
+            PreparedStatement other = cache.prepare(second, query, false);
+            second.close();
+            cache.prepare(first, query, false);
+            Assert.assertTrue(other.isClosed());
+            Assert.assertEquals(cache.getConnectionCount(), 1);
+        } finally {
+            cache.clear();
+        }
+    }
+
+    public void testReuseAcrossExecutions() throws Exception {
+        QJdbcStatementCache cache = statementCache();
+        long hits = cache.getHitCount();
+
+        // pool has two connections, so at least one of them is checked out again
+        for (int i = 0; i < 3; i++) {
+            NyQLResult songs = nyQLInstance.execute("songs");
+            Assert.assertEquals(songs.size(), 0);
+        }
+        Assert.assertTrue(cache.getHitCount() > hits);
+        Assert.assertTrue(cache.getConnectionCount() <= 2);
+    }
+
+    private QJdbcStatementCache statementCache() {
+        QJdbcExecutorFactory factory = (QJdbcExecutorFactory) nyQLInstance.getConfigurations()
+                .getExecutorRegistry().defaultExecutorFactory();
+        return factory.getExecutorOptions().getStatementCache();
+    }
+}
@@ -0,0 +1,141 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.configs.ConfigParser;
+import com.virtusa.gto.nyql.configs.Configurations;
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.repo.Caching;
+import com.virtusa.gto.nyql.engine.repo.QScriptsFolder;
+import com.virtusa.gto.nyql.engine.repo.ScriptPrecompiler;
+import com.virtusa.gto.nyql.model.QScript;
+import com.virtusa.gto.nyql.model.QScriptList;
+import com.virtusa.gto.nyql.model.QScriptResult;
+import com.virtusa.gto.nyql.model.QSource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Static DSL mode must generate the same queries as the default dynamic mode,
+ * while scripts failing static type checking fall back to dynamic compilation.
+ *
+ * @author iweerarathna
+ */
+@Test(groups = "scripts")
+public class StaticDslTest {
+
+    private static final Set<String> DYNAMIC_SCRIPTS = new TreeSet<>(Arrays.asList(
+            "inserts/data_imports", "natives/strnative", "selects/valuetables"));
+
+    public void testSameQueriesInBothModes() throws Exception {
+        Collection<QSource> sources = scriptsFolder().scanDir().allSources();
+
+        Map<String, String> dynamic = parseAll(false, sources);
+        Map<String, String> statics = parseAll(true, sources);
+
+        Assert.assertEquals(dynamic.size(), sources.size());
+        Assert.assertEquals(statics, dynamic);
+    }
+
+    public void testFallbackToDynamic() throws Exception {
+        QScriptsFolder scriptsFolder = scriptsFolder();
+        Collection<QSource> sources = scriptsFolder.scanDir().allSources();
+
+        try (NyQLInstance nyQLInstance = NyQLInstance.create("static-fallback", configs(true));
+             Caching cache = new Caching(nyQLInstance.getConfigurations(), scriptsFolder)) {
+            cache.compileAllScripts(sources);
+            Assert.assertEquals(cache.compiledScriptIds().size(), sources.size());
+            Assert.assertEquals(new TreeSet<>(cache.dynamicallyCompiledScriptIds()), DYNAMIC_SCRIPTS);
+        }
+
+        try (NyQLInstance nyQLInstance = NyQLInstance.create("dynamic-only", configs(false));
+             Caching cache = new Caching(nyQLInstance.getConfigurations(), scriptsFolder)) {
+            cache.compileAllScripts(sources);
+            Assert.assertEquals(cache.compiledScriptIds().size(), sources.size());
+            Assert.assertTrue(cache.dynamicallyCompiledScriptIds().isEmpty());
+        }
+    }
+
+    public void testPrecompileStatically() throws Exception {
+        File bundle = new File("./target/nyql-precompiled/static-scripts.jar");
+        QScriptsFolder scriptsFolder = scriptsFolder();
+        Collection<QSource> sources = scriptsFolder.scanDir().allSources();
+
+        ScriptPrecompiler precompiler = new ScriptPrecompiler(Configurations.builtInImports(), getClass().getClassLoader());
+        precompiler.setValidate(false);
+        precompiler.setStaticDsl(true);
+        Assert.assertEquals(precompiler.precompile(sources, bundle), sources.size());
+        Assert.assertEquals(precompiler.getDynamicScripts(), DYNAMIC_SCRIPTS);
+
+        // by default, all scripts are compiled dynamically without attempting static compilation
+        precompiler.setStaticDsl(false);
+        Assert.assertEquals(precompiler.precompile(sources, bundle), sources.size());
+        Assert.assertTrue(precompiler.getDynamicScripts().isEmpty());
+    }
+
+    private static Map<String, String> parseAll(boolean staticDsl, Collection<QSource> sources) throws Exception {
+        // same data as parsing tests, since missing data need not fail alike in both modes
+        Map<String, Object> data = new HashMap<>();
+        data.put("listOfInt", Arrays.asList(1, 2, 3));
+        data.put("emptyList", new ArrayList<>());
+        data.put("singleList", Collections.singletonList(1));
+        data.put("doubleList", Arrays.asList(1, 2));
+
+        Map<String, String> queries = new TreeMap<>();
+        try (NyQLInstance nyQLInstance = NyQLInstance.create(staticDsl ? "static-dsl" : "dynamic-dsl", configs(staticDsl))) {
+            for (QSource source : sources) {
+                String outcome;
+                try {
+                    // identity hash codes and generated table names differ between instances
+                    outcome = describe(nyQLInstance.parse(source.getId(), new HashMap<>(data)))
+                            .replaceAll("@[0-9a-f]+", "")
+                            .replaceAll("`\\d{10,}`", "`?`");
+                } catch (Exception ex) {
+                    outcome = "failed: " + ex.getClass().getName();
+                }
+                queries.put(source.getId(), outcome);
+            }
+        }
+        return queries;
+    }
+
+    private static String describe(Object result) {
+        if (result instanceof QScriptList) {
+            StringBuilder builder = new StringBuilder();
+            for (QScript script : ((QScriptList) result).getScripts()) {
+                builder.append(describe(script)).append(";\n");
+            }
+            return builder.toString();
+        } else if (result instanceof QScriptResult) {
+            return "result: " + ((QScriptResult) result).getScriptResult();
+        } else if (result instanceof QScript) {
+            QScript script = (QScript) result;
+            return script.getProxy() == null ? "" : String.valueOf(script.getProxy().getQuery()).trim();
+        }
+        return String.valueOf(result);
+    }
+
+    private static QScriptsFolder scriptsFolder() {
+        QScriptsFolder scriptsFolder = new QScriptsFolder(new File("./scripts"));
+        scriptsFolder.setInclusionPatterns("");
+        scriptsFolder.setExclusionPatterns("scripts/violations/**");
+        return scriptsFolder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> configs(boolean staticDsl) throws Exception {
+        Map<String, Object> configs = ConfigParser.parseAndResolve(new File("./configs/nyql2.json"));
+        Map<String, Object> caching = (Map<String, Object>) configs.get("caching");
+        caching.put("staticDsl", staticDsl);
+        return configs;
+    }
+}
@@ -0,0 +1,52 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLRow;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class StreamingTest {
+
+    private final H2Database h2 = new H2Database("streaming");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+        h2.insertSongs(5);
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testStreaming() throws Exception {
+        List<Object> titles = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        long total = nyQLInstance.stream("songs", new HashMap<>(), 2, row -> {
+            titles.add(row.get("title"));
+            rows.add(row);
+        });
+
+        Assert.assertEquals(total, 5L);
+        Assert.assertEquals(titles, Arrays.asList("song-0", "song-1", "song-2", "song-3", "song-4"));
+
+        // streamed rows are the same compact rows as materialized results
+        Assert.assertTrue(rows.get(0) instanceof NyQLRow);
+        Assert.assertSame(((NyQLRow) rows.get(0)).getSchema(), ((NyQLRow) rows.get(4)).getSchema());
+        Assert.assertEquals(rows, nyQLInstance.execute("songs"));
+    }
+}
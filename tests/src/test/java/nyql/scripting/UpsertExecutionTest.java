@@ -0,0 +1,93 @@
+package nyql.scripting;
+
+import com.virtusa.gto.nyql.engine.NyQLInstance;
+import com.virtusa.gto.nyql.engine.impl.NyQLResult;
+import com.virtusa.gto.nyql.model.QScript;
+import com.virtusa.gto.nyql.model.QScriptList;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author IWEERARATHNA
+ */
+@Test(groups = "scripts")
+public class UpsertExecutionTest {
+
+    private final H2Database h2 = new H2Database("upsertExecution");
+    private NyQLInstance nyQLInstance;
+
+    @BeforeClass
+    public void startup() throws Exception {
+        nyQLInstance = h2.startup();
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        h2.teardown(nyQLInstance);
+    }
+
+    public void testSingleStatementUpsert() throws Exception {
+        QScript script = nyQLInstance.parse("genreUpsert");
+        Assert.assertTrue(script instanceof QScriptList);
+        Assert.assertEquals(((QScriptList) script).getScripts().size(), 1);
+        Assert.assertTrue(((QScriptList) script).getScripts().get(0).getProxy().getQuery().startsWith("MERGE INTO"));
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", 1);
+        data.put("name", "rock");
+        nyQLInstance.execute("genreUpsert", data);
+        data.put("name", "jazz");
+        nyQLInstance.execute("genreUpsert", data);
+        data.put("id", 2);
+        nyQLInstance.execute("genreUpsert", data);
+
+        try (Connection connection = h2.connect();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT \"id\", \"name\" FROM \"Genre\" ORDER BY \"id\"")) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(resultSet.getString(2), "jazz");
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(resultSet.getInt(1), 2);
+            Assert.assertFalse(resultSet.next());
+        }
+    }
+
+    @Test(dependsOnMethods = "testSingleStatementUpsert")
+    public void testBulkUpsert() throws Exception {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (Object[] genre : new Object[][] {{2, "pop"}, {3, "blues"}}) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("id", genre[0]);
+            record.put("name", genre[1]);
+            records.add(record);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("__batch__", records);
+        NyQLResult result = nyQLInstance.execute("genreBulkUpsert", data);
+        Assert.assertEquals(result.affectedCounts(), Arrays.asList(1, 1));
+
+        try (Connection connection = h2.connect();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT \"id\", \"name\" FROM \"Genre\" ORDER BY \"id\"")) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(resultSet.getString(2), "jazz");
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(resultSet.getString(2), "pop");
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(resultSet.getString(2), "blues");
+            Assert.assertFalse(resultSet.next());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.virtusa.gto.nyql.Assign;
 import com.virtusa.gto.nyql.CTE;
 import com.virtusa.gto.nyql.Column;
 import com.virtusa.gto.nyql.FunctionColumn;
+import com.virtusa.gto.nyql.InsertOrQuery;
 import com.virtusa.gto.nyql.Join;
 import com.virtusa.gto.nyql.QContextType;
 import com.virtusa.gto.nyql.QResultProxy;
@@ -14,14 +15,17 @@ import com.virtusa.gto.nyql.QuerySelect;
 import com.virtusa.gto.nyql.QueryTruncate;
 import com.virtusa.gto.nyql.Table;
 import com.virtusa.gto.nyql.TableAll;
+import com.virtusa.gto.nyql.UpsertQuery;
 import com.virtusa.gto.nyql.Where;
 import com.virtusa.gto.nyql.WithClosure;
 import com.virtusa.gto.nyql.exceptions.NyException;
 import com.virtusa.gto.nyql.model.JoinType;
 import com.virtusa.gto.nyql.model.ValueTable;
 import com.virtusa.gto.nyql.model.DbInfo;
+import com.virtusa.gto.nyql.model.QMultiRowInsert;
 import com.virtusa.gto.nyql.model.units.AParam;
 import com.virtusa.gto.nyql.utils.QOperator;
+import com.virtusa.gto.nyql.utils.QReturnType;
 import com.virtusa.gto.nyql.utils.QUtils;
 import com.virtusa.gto.nyql.utils.QueryType;
 
@@ -73,6 +77,36 @@ public abstract class AbstractSQLTranslator implements QTranslator {
 
     protected abstract String getQuoteChar();
 
+    /**
+     * Returns maximum number of parameters allowed in a single query by the database.
+     *
+     * @return maximum parameter count.
+     */
+    protected int getMaxParameterCount() {
+        return 65535;
+    }
+
+    /**
+     * Returns maximum number of rows allowed in a single multi-row insert statement.
+     *
+     * @return maximum row count.
+     */
+    protected int getMaxRowsPerInsert() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the clause to be placed before <code>VALUES</code> of a multi-row insert, in order to
+     * return generated keys as a result set. This is required when the jdbc driver of the database
+     * does not return generated keys of batches, in which case bulk inserts returning keys
+     * are always executed as multi-row inserts.
+     *
+     * @return keys clause, or null if driver returns generated keys of batches.
+     */
+    protected String getMultiRowKeysClause() {
+        return null;
+    }
+
     protected String convertToAlias(String alias, String qChar) {
         return (keywords.contains(alias.toUpperCase(Locale.getDefault()))
                 ? QUtils.quote(alias, qChar)
@@ -173,6 +207,7 @@ public abstract class AbstractSQLTranslator implements QTranslator {
         StringBuilder query = new StringBuilder();
 
         query.append("INSERT INTO ").append(___resolve(q.getSourceTbl(), QContextType.INTO, paramList)).append(" (");
+        int headParamCount = paramList.size();
         List<String> colList = new LinkedList<>();
         List<String> valList = new LinkedList<>();
 
@@ -186,31 +221,149 @@ public abstract class AbstractSQLTranslator implements QTranslator {
         }
 
         if (q.get_assigns() != null && q.get_assigns().__hasAssignments()) {
-            for (Object object : q.get_assigns().getAssignments()) {
-                if (object instanceof Assign.AnAssign) {
-                    Assign.AnAssign anAssign = (Assign.AnAssign)object;
-
-                    if (anAssign.getLeftOp() instanceof Column) {
-                        colList.add(String.valueOf(___resolve(anAssign.getLeftOp(), QContextType.INSERT_PROJECTION, paramList)));
-                    } else {
-                        colList.add(QUtils.quote(anAssign.toString(), quoteChar));
-                    }
-                    ___scanForParameters(anAssign.getRightOp(), paramList);
-                    valList.add(String.valueOf(___resolve(anAssign.getRightOp(), QContextType.INSERT_DATA, paramList)));
-                }
+            collectInsertValues(q.get_assigns(), quoteChar, colList, valList, paramList);
+        }
+
+        query.append(colList.stream().collect(Collectors.joining(COMMA))).append(")");
+        String columnsPart = query.toString();
+        query.append(" VALUES ");
+        String queryPrefix = query.toString();
+        String rowTemplate = "(" + valList.stream().collect(Collectors.joining(COMMA)) + ")";
+        query.append(rowTemplate);
+
+        String keysClause = q.getReturnType() == QReturnType.KEYS ? getMultiRowKeysClause() : null;
+        QMultiRowInsert multiRowInsert = null;
+        if (q.is_multiRow() || keysClause != null) {
+            multiRowInsert = createMultiRowInsert(queryPrefix, rowTemplate, paramList, headParamCount, q.get_multiRowLimit());
+            if (keysClause != null) {
+                multiRowInsert.setQueryPrefix(columnsPart + " " + keysClause + " VALUES ");
+                multiRowInsert.setKeysAsResult(true);
             }
         }
 
-        query.append(colList.stream().collect(Collectors.joining(COMMA)))
-                .append(") VALUES (")
-                .append(valList.stream().collect(Collectors.joining(COMMA)))
-                .append(")");
-
-        QResultProxy resultProxy = createProxy(query.toString(), QueryType.INSERT, paramList, null, null);
+        QResultProxy resultProxy = createProxy(query.toString(), QueryType.INSERT, paramList, multiRowInsert, null);
         resultProxy.setReturnType(q.getReturnType());
         return resultProxy;
     }
 
+    /**
+     * Collects inserting column names and their values from the given assignments.
+     *
+     * @param assign assignments of the insert.
+     * @param quoteChar quote character for column names.
+     * @param colList list to add column names.
+     * @param valList list to add values.
+     * @param paramList list of parameters.
+     */
+    protected void collectInsertValues(Assign assign, String quoteChar, List<String> colList, List<String> valList,
+                                       List<AParam> paramList) {
+        for (Object object : assign.getAssignments()) {
+            if (object instanceof Assign.AnAssign) {
+                Assign.AnAssign anAssign = (Assign.AnAssign)object;
+
+                if (anAssign.getLeftOp() instanceof Column) {
+                    colList.add(String.valueOf(___resolve(anAssign.getLeftOp(), QContextType.INSERT_PROJECTION, paramList)));
+                } else {
+                    colList.add(QUtils.quote(anAssign.toString(), quoteChar));
+                }
+                ___scanForParameters(anAssign.getRightOp(), paramList);
+                valList.add(String.valueOf(___resolve(anAssign.getRightOp(), QContextType.INSERT_DATA, paramList)));
+            }
+        }
+    }
+
+    /**
+     * Returns true if the given upsert can be translated into a single statement. Upserts
+     * having joins, or returning the record before the change, need separate queries.
+     *
+     * @param q upsert query model.
+     * @return true if single statement is possible.
+     */
+    protected boolean isSingleStatementUpsert(UpsertQuery q) {
+        return q.get_joiningTable() == null
+                && !q.getSourceTbl().__isResultOf()
+                && q.getReturningType() != UpsertQuery.ReturnType.RECORD_BEFORE
+                && q.get_assigns() != null && q.get_assigns().__hasAssignments();
+    }
+
+    /**
+     * Returns true if the given insert or load query can be translated into a single statement.
+     * Queries having joins need separate queries.
+     *
+     * @param q insert or load query model.
+     * @return true if single statement is possible.
+     */
+    protected boolean isSingleStatementInsertOrLoad(InsertOrQuery q) {
+        return q.get_joiningTable() == null
+                && !q.getSourceTbl().__isResultOf()
+                && q.get_assigns() != null && q.get_assigns().__hasAssignments()
+                && q.getWhereObj() != null && q.getWhereObj().__hasClauses();
+    }
+
+    /**
+     * Expands the assignments used to update an existing record in an upsert.
+     * Updating columns are not qualified, since the update happens within an insert or merge.
+     *
+     * @param q upsert query model.
+     * @param paramOrder list of parameters.
+     * @return assignments to update.
+     */
+    protected String ___expandUpsertAssignments(UpsertQuery q, List<AParam> paramOrder) {
+        Assign assign = q.get_assigns();
+        if (q.get_updateSet() != null && q.get_updateSet().__hasAssignments()) {
+            assign = q.get_updateSet();
+        }
+
+        List<String> derived = new ArrayList<>();
+        for (Object c : assign.getAssignments()) {
+            if (c instanceof Assign.AnAssign) {
+                Assign.AnAssign anAssign = (Assign.AnAssign)c;
+                ___scanForParameters(anAssign.getRightOp(), paramOrder);
+
+                String val = ___resolve(anAssign.getLeftOp(), QContextType.INSERT_PROJECTION, paramOrder) +
+                        ' ' + ___convertOperator(anAssign.getOp()) + ' ' +
+                        ___resolve(anAssign.getRightOp(), QContextType.UPDATE_SET, paramOrder);
+                derived.add(val);
+            } else {
+                derived.add(___resolve(c, QContextType.UPDATE_SET, paramOrder));
+            }
+        }
+        return derived.stream().collect(Collectors.joining(COMMA));
+    }
+
+    /**
+     * Creates multi-row insert descriptor where number of rows per statement is bounded
+     * by the database parameter limit and row limit.
+     *
+     * @param queryPrefix query part before values.
+     * @param rowTemplate values part of a single row.
+     * @param paramList all parameters of single row query.
+     * @param headParamCount number of parameters appear before values.
+     * @param userLimit user specified maximum rows per statement.
+     * @return multi-row insert descriptor.
+     */
+    protected QMultiRowInsert createMultiRowInsert(String queryPrefix, String rowTemplate, List<AParam> paramList,
+                                                   int headParamCount, int userLimit) {
+        List<AParam> headParams = new ArrayList<>(paramList.subList(0, headParamCount));
+        List<AParam> rowParams = new ArrayList<>(paramList.subList(headParamCount, paramList.size()));
+
+        int maxRows = getMaxRowsPerInsert();
+        if (!rowParams.isEmpty()) {
+            maxRows = Math.min(maxRows, (getMaxParameterCount() - headParams.size()) / rowParams.size());
+        }
+        if (userLimit > 0) {
+            maxRows = Math.min(maxRows, userLimit);
+        }
+
+        QMultiRowInsert multiRowInsert = new QMultiRowInsert();
+        multiRowInsert.setQueryPrefix(queryPrefix);
+        multiRowInsert.setRowTemplate(rowTemplate);
+        multiRowInsert.setHeadParameters(headParams);
+        multiRowInsert.setRowParameters(rowParams);
+        multiRowInsert.setRowsPerQuery(Math.max(1, maxRows));
+        return multiRowInsert;
+    }
+
     protected StringBuilder generateSelectQueryBody(QuerySelect q, List<AParam> paramList) throws NyException {
         StringBuilder query = new StringBuilder();
         query.append("SELECT ");
@@ -375,6 +375,33 @@ class H2 extends H2Functions implements QTranslator {
         new QResultProxy(query: query.toString(), orderedParameters: paramList, queryType: QueryType.UPDATE)
     }
 
+    /**
+     * Generates a merge statement using the declared unique key columns. Since merge
+     * updates an existing record with the inserting values, upserts having a separate
+     * update clause are not supported.
+     */
+    @CompileStatic
+    @Override
+    QResultProxy ___upsertQuery(UpsertQuery q) throws NyException {
+        if (!isSingleStatementUpsert(q) || !QUtils.notNullNorEmpty(q.conflictColumns)
+                || q.returningType != UpsertQuery.ReturnType.NONE
+                || (q._updateSet != null && q._updateSet.__hasAssignments())) {
+            return null
+        }
+
+        List<AParam> paramList = new LinkedList<>()
+        List<String> colList = new LinkedList<>()
+        List<String> valList = new LinkedList<>()
+        StringBuilder query = new StringBuilder()
+        query.append('MERGE INTO ').append(___tableName(q.sourceTbl, QContextType.INTO)).append(' (')
+        collectInsertValues(q._assigns, BACK_TICK, colList, valList, paramList)
+        query.append(colList.join(COMMA)).append(') ').append(NL)
+                .append('KEY (').append(___expandProjection(q.conflictColumns, paramList, QContextType.INSERT_PROJECTION)).append(') ').append(NL)
+                .append('VALUES (').append(valList.join(COMMA)).append(')')
+
+        createProxy(query.toString(), QueryType.UPDATE, paramList, null, null)
+    }
+
     @Override
     QDdl ___ddls() {
         DDL
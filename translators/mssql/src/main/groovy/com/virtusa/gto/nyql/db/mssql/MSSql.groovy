@@ -334,6 +334,68 @@ class MSSql extends MSSqlFunctions implements QTranslator {
         generateInsertQuery(q, QUOTE)
     }
 
+    /**
+     * Generates a single merge statement, where existing record is detected using the
+     * where clause of upsert. Merge is not atomic unless the lock is held till the end.
+     */
+    @CompileStatic
+    @Override
+    QResultProxy ___upsertQuery(UpsertQuery q) throws NyException {
+        if (!isSingleStatementUpsert(q) || q.returningType == UpsertQuery.ReturnType.CUSTOM) {
+            return null
+        }
+
+        List<AParam> paramList = new LinkedList<>()
+        StringBuilder query = new StringBuilder()
+        query.append('MERGE INTO ').append(___tableName(q.sourceTbl, QContextType.INTO)).append(' WITH (HOLDLOCK)')
+                .append(tableAliasAs(q.sourceTbl, QUOTE)).append(' USING (SELECT 1 AS one) src ').append(NL)
+                .append('ON (').append(___expandConditions(q.whereObj, paramList, QContextType.CONDITIONAL)).append(') ').append(NL)
+        query.append('WHEN MATCHED THEN UPDATE SET ').append(___expandUpsertAssignments(q, paramList)).append(' ').append(NL)
+
+        List<String> colList = new LinkedList<>()
+        List<String> valList = new LinkedList<>()
+        collectInsertValues(q._assigns, QUOTE, colList, valList, paramList)
+        query.append('WHEN NOT MATCHED THEN INSERT (').append(colList.join(COMMA))
+                .append(') VALUES (').append(valList.join(COMMA)).append(') ')
+
+        QueryType queryType = QueryType.UPDATE
+        if (q.returningType == UpsertQuery.ReturnType.RECORD_AFTER) {
+            query.append(NL).append('OUTPUT inserted.*')
+            queryType = QueryType.SELECT
+        }
+        query.append(';')
+        createProxy(query.toString(), queryType, paramList, null, null)
+    }
+
+    /**
+     * Inserts the record only if not exists while holding a range lock, and then selects
+     * the record, within a single batch. NOCOUNT is session wide, hence its previous
+     * value is restored at the end of the batch.
+     */
+    @CompileStatic
+    @Override
+    QResultProxy ___insertOrLoadQuery(InsertOrQuery q) throws NyException {
+        if (!isSingleStatementInsertOrLoad(q)) {
+            return null
+        }
+
+        List<AParam> paramList = new LinkedList<>()
+        List<String> colList = new LinkedList<>()
+        List<String> valList = new LinkedList<>()
+        StringBuilder query = new StringBuilder('DECLARE @nocount INT = @@OPTIONS & 512; SET NOCOUNT ON; ').append(NL)
+        query.append('INSERT INTO ').append(___tableName(q.sourceTbl, QContextType.INTO)).append(' (')
+        collectInsertValues(q._assigns, QUOTE, colList, valList, paramList)
+        query.append(colList.join(COMMA)).append(') SELECT ').append(valList.join(COMMA))
+                .append(' WHERE NOT EXISTS (SELECT 1 FROM ').append(___deriveSource(q.sourceTbl, paramList, QContextType.FROM))
+                .append(' WITH (UPDLOCK, HOLDLOCK) WHERE ').append(___expandConditions(q.whereObj, paramList, QContextType.CONDITIONAL))
+                .append('); ').append(NL)
+        query.append('SELECT TOP 1 * FROM ').append(___deriveSource(q.sourceTbl, paramList, QContextType.FROM))
+                .append(' WHERE ').append(___expandConditions(q.whereObj, paramList, QContextType.CONDITIONAL)).append('; ').append(NL)
+        query.append('IF @nocount = 0 SET NOCOUNT OFF;')
+
+        createProxy(query.toString(), QueryType.SELECT, paramList, null, null)
+    }
+
     @Override
     QDdl ___ddls() {
         return DDL
@@ -347,4 +409,29 @@ class MSSql extends MSSqlFunctions implements QTranslator {
     protected String getQuoteChar() {
         QUOTE
     }
+
+    /**
+     * SQL Server allows at most 2100 parameters in a single request.
+     */
+    @Override
+    protected int getMaxParameterCount() {
+        2100
+    }
+
+    /**
+     * SQL Server table value constructor allows at most 1000 rows.
+     */
+    @Override
+    protected int getMaxRowsPerInsert() {
+        1000
+    }
+
+    /**
+     * SQL Server driver does not return generated keys of a batch, hence identities are
+     * taken from the output clause.
+     */
+    @Override
+    protected String getMultiRowKeysClause() {
+        'OUTPUT INSERTED.$IDENTITY'
+    }
 }
@@ -303,6 +303,26 @@ class MySql extends MySqlFunctions implements QTranslator {
         generateInsertQuery(q, BACK_TICK)
     }
 
+    @CompileStatic
+    @Override
+    QResultProxy ___upsertQuery(UpsertQuery q) throws NyException {
+        if (!isSingleStatementUpsert(q) || !QUtils.notNullNorEmpty(q.conflictColumns)
+                || q.returningType != UpsertQuery.ReturnType.NONE) {
+            return null
+        }
+
+        List<AParam> paramList = new LinkedList<>()
+        List<String> colList = new LinkedList<>()
+        List<String> valList = new LinkedList<>()
+        StringBuilder query = new StringBuilder()
+        query.append('INSERT INTO ').append(___tableName(q.sourceTbl, QContextType.INTO)).append(' (')
+        collectInsertValues(q._assigns, BACK_TICK, colList, valList, paramList)
+        query.append(colList.join(COMMA)).append(') VALUES (').append(valList.join(COMMA)).append(') ').append(NL)
+        query.append('ON DUPLICATE KEY UPDATE ').append(___expandUpsertAssignments(q, paramList))
+
+        createProxy(query.toString(), QueryType.UPDATE, paramList, null, null)
+    }
+
     @CompileStatic
     @Override
     QDdl ___ddls() {
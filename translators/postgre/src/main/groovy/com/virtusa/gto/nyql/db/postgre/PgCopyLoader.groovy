@@ -0,0 +1,69 @@
+package com.virtusa.gto.nyql.db.postgre
+
+import com.virtusa.gto.nyql.exceptions.NyException
+import com.virtusa.gto.nyql.model.QBulkLoader
+import groovy.transform.CompileStatic
+
+import java.sql.Connection
+
+/**
+ * Loads records of a bulk insert using <code>COPY ... FROM STDIN</code> through the
+ * <code>CopyManager</code> of the postgres jdbc driver. Records are encoded as CSV while
+ * the driver reads them, hence they are streamed to the database.
+ *
+ * @author IWEERARATHNA
+ */
+class PgCopyLoader implements QBulkLoader {
+
+    private static final String PG_CONNECTION_CLZ = 'org.postgresql.PGConnection'
+
+    /**
+     * Copy query. Eg: COPY "table" ("a", "b") FROM STDIN WITH (FORMAT csv)
+     */
+    final String copyQuery
+
+    /**
+     * Record keys of all columns, in the order of columns in copy query.
+     */
+    final List<String> columns
+
+    PgCopyLoader(String theCopyQuery, List<String> theColumns) {
+        copyQuery = theCopyQuery
+        columns = Collections.unmodifiableList(new ArrayList<String>(theColumns))
+    }
+
+    @CompileStatic
+    @Override
+    long load(Connection connection, Iterator<Map> records, Map sessionVariables) throws Exception {
+        Reader reader = new PgCsvReader(records, columns, sessionVariables)
+        try {
+            copyIn(copyManager(connection), reader)
+        } finally {
+            reader.close()
+        }
+    }
+
+    /**
+     * Returns the copy manager of the given connection.
+     *
+     * @param connection connection to the database, possibly wrapped by a pool.
+     * @return copy manager instance.
+     * @throws NyException when the connection is not a postgres jdbc connection.
+     */
+    protected Object copyManager(Connection connection) throws NyException {
+        Class<?> pgConnectionClz
+        try {
+            pgConnectionClz = Class.forName(PG_CONNECTION_CLZ, true, connection.class.classLoader)
+        } catch (ClassNotFoundException ex) {
+            throw new NyException('Postgres jdbc driver is not found to load records using COPY!', ex)
+        }
+        if (!connection.isWrapperFor(pgConnectionClz)) {
+            throw new NyException('Connection is not a postgres connection to load records using COPY!')
+        }
+        connection.unwrap(pgConnectionClz).getCopyAPI()
+    }
+
+    private long copyIn(Object copyManager, Reader reader) {
+        copyManager.copyIn(copyQuery, reader) as long
+    }
+}
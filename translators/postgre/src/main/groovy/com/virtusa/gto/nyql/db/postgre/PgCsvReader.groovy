@@ -0,0 +1,128 @@
+package com.virtusa.gto.nyql.db.postgre
+
+import groovy.transform.CompileStatic
+import groovy.transform.PackageScope
+
+import java.sql.Timestamp
+
+/**
+ * Reader encoding records as CSV lines one record at a time, while the reader is being read,
+ * so that records can be piped to a <code>COPY ... FROM STDIN</code> without buffering all of them.
+ *
+ * NULL values are written as unquoted empty values, and empty strings are quoted.
+ *
+ * @author IWEERARATHNA
+ */
+@CompileStatic
+@PackageScope
+class PgCsvReader extends Reader {
+
+    private static final char QUOTE = '"' as char
+    private static final char SEP = ',' as char
+    private static final char NL = '\n' as char
+    private static final char[] HEX = '0123456789abcdef'.toCharArray()
+
+    private final Iterator<Map> records
+    private final List<String> columns
+    private final Map sessionVariables
+
+    private final StringBuilder line = new StringBuilder()
+    private int position = 0
+
+    PgCsvReader(Iterator<Map> theRecords, List<String> theColumns, Map theSessionVariables) {
+        records = theRecords
+        columns = theColumns
+        sessionVariables = theSessionVariables ?: [:]
+    }
+
+    @Override
+    int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0
+        }
+
+        int read = 0
+        while (read < len) {
+            if (position >= line.length() && !nextLine()) {
+                break
+            }
+            int count = Math.min(len - read, line.length() - position)
+            line.getChars(position, position + count, cbuf, off + read)
+            position += count
+            read += count
+        }
+        read == 0 ? -1 : read
+    }
+
+    @Override
+    void close() throws IOException {
+        line.setLength(0)
+        position = 0
+    }
+
+    private boolean nextLine() {
+        if (!records.hasNext()) {
+            return false
+        }
+
+        Map record = records.next()
+        line.setLength(0)
+        position = 0
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append(SEP)
+            }
+            String name = columns.get(i)
+            appendValue(record.containsKey(name) ? record.get(name) : sessionVariables.get(name))
+        }
+        line.append(NL)
+        true
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            return
+        }
+
+        String text
+        if (value instanceof byte[]) {
+            text = toHex((byte[]) value)
+        } else if (value instanceof Date && !(value instanceof java.sql.Date) && !(value instanceof Timestamp)) {
+            text = new Timestamp(((Date) value).time).toString()
+        } else {
+            text = String.valueOf(value)
+        }
+
+        if (text.isEmpty() || needsQuoting(text)) {
+            line.append(QUOTE)
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i)
+                if (c == QUOTE) {
+                    line.append(QUOTE)
+                }
+                line.append(c)
+            }
+            line.append(QUOTE)
+        } else {
+            line.append(text)
+        }
+    }
+
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i)
+            if (c == QUOTE || c == SEP || c == NL || c == ('\r' as char) || c == ('\\' as char)) {
+                return true
+            }
+        }
+        false
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(2 + bytes.length * 2).append('\\x')
+        for (byte b : bytes) {
+            hex.append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F])
+        }
+        hex.toString()
+    }
+}
@@ -18,6 +18,7 @@ class PostgreFactory implements QDbFactory {
     private static final String PG_DRIVER_CLZ = 'org.postgresql.Driver'
     private static final String PG_DATA_SOURCE_NAME = 'org.postgresql.ds.PGSimpleDataSource'
     private static final String PG_KEYWORDS_LOCATION = 'com/virtusa/gto/nyql/db/postgre/keywords.json'
+    private static final String PG_COPY_BULK_INSERT = 'copyBulkInsert'
     private Postgres postgres
 
     @Override
@@ -26,6 +27,12 @@ class PostgreFactory implements QDbFactory {
         Collection<String> keywords = loadKeywords(nyConfigs)
 
         postgres = new Postgres(new TranslatorOptions(keywords), dbInfo)
+        postgres.copyBulkInsert = isCopyBulkInsert(nyConfigs)
+    }
+
+    private static boolean isCopyBulkInsert(Configurations nyConfigs) {
+        Map props = nyConfigs.getAllProperties()
+        Boolean.parseBoolean(String.valueOf(props.get(ConfigKeys.QUERIES_ROOT)?.get(PG)?.get(PG_COPY_BULK_INSERT)))
     }
 
     private static Set<String> loadKeywords(Configurations nyConfigs) {
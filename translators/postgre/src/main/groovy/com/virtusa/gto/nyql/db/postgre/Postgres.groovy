@@ -8,6 +8,7 @@ import com.virtusa.gto.nyql.exceptions.NyException
 import com.virtusa.gto.nyql.exceptions.NySyntaxException
 import com.virtusa.gto.nyql.model.DbInfo
 import com.virtusa.gto.nyql.model.units.AParam
+import com.virtusa.gto.nyql.utils.QReturnType
 import com.virtusa.gto.nyql.utils.QUtils
 import com.virtusa.gto.nyql.utils.QueryCombineType
 import com.virtusa.gto.nyql.utils.QueryType
@@ -33,6 +34,11 @@ class Postgres extends PostgresFunctions implements QTranslator {
 
     private DbInfo dbInfo
 
+    /**
+     * Whether plain bulk inserts should be loaded using COPY, instead of jdbc batches.
+     */
+    boolean copyBulkInsert = false
+
     Postgres() { super() }
 
     Postgres(TranslatorOptions theOptions, DbInfo theDbInfo) {
@@ -264,7 +270,59 @@ class Postgres extends PostgresFunctions implements QTranslator {
 
     @Override
     QResultProxy ___insertQuery(QueryInsert q) {
-        generateInsertQuery(q, DOUBLE_QUOTE)
+        QResultProxy proxy = generateInsertQuery(q, DOUBLE_QUOTE)
+        if (copyBulkInsert && proxy.rawObject == null) {
+            proxy.rawObject = createCopyLoader(q)
+        }
+        proxy
+    }
+
+    /**
+     * Creates a COPY loader for the insert, only if all its values are mapped directly from
+     * plain parameters. Otherwise returns null, hence executed as a batch.
+     */
+    @CompileStatic
+    private PgCopyLoader createCopyLoader(QueryInsert q) {
+        if (q.returnType == QReturnType.KEYS || q.sourceTbl.__isResultOf()) {
+            return null
+        }
+
+        List<AParam> paramList = new LinkedList<>()
+        List<String> colList = new LinkedList<>()
+        List<String> keys = new LinkedList<>()
+        for (Map.Entry<String, Object> entry : q._data.entrySet()) {
+            if (!isPlainParam(entry.value)) {
+                return null
+            }
+            colList.add(QUtils.quote(entry.key, DOUBLE_QUOTE))
+            keys.add(((AParam) entry.value).__name)
+        }
+        if (q._assigns != null) {
+            for (Object item : q._assigns.assignments) {
+                if (!(item instanceof Assign.AnAssign) || !isPlainParam(((Assign.AnAssign) item).rightOp)) {
+                    return null
+                }
+                Assign.AnAssign anAssign = (Assign.AnAssign) item
+                if (anAssign.leftOp instanceof Column) {
+                    colList.add(String.valueOf(___resolve(anAssign.leftOp, QContextType.INSERT_PROJECTION, paramList)))
+                } else {
+                    colList.add(QUtils.quote(anAssign.toString(), DOUBLE_QUOTE))
+                }
+                keys.add(((AParam) anAssign.rightOp).__name)
+            }
+        }
+        if (colList.isEmpty()) {
+            return null
+        }
+
+        String query = 'COPY ' + ___tableName(q.sourceTbl, QContextType.INTO) + ' (' + colList.join(COMMA) +
+                ') FROM STDIN WITH (FORMAT csv)'
+        new PgCopyLoader(query, keys)
+    }
+
+    @CompileStatic
+    private static boolean isPlainParam(Object value) {
+        value != null && value.getClass() == AParam && ((AParam) value).__name.indexOf('.') < 0
     }
 
     @Override
@@ -331,6 +389,64 @@ class Postgres extends PostgresFunctions implements QTranslator {
         new QResultProxy(query: query.toString(), orderedParameters: paramList, queryType: QueryType.UPDATE)
     }
 
+    @CompileStatic
+    @Override
+    QResultProxy ___upsertQuery(UpsertQuery q) throws NyException {
+        if (!isSingleStatementUpsert(q) || !QUtils.notNullNorEmpty(q.conflictColumns)) {
+            return null
+        }
+
+        List<AParam> paramList = new LinkedList<>()
+        List<String> colList = new LinkedList<>()
+        List<String> valList = new LinkedList<>()
+        StringBuilder query = new StringBuilder()
+        query.append('INSERT INTO ').append(___tableName(q.sourceTbl, QContextType.INTO))
+                .append(tableAliasAs(q.sourceTbl, DOUBLE_QUOTE)).append(' (')
+        collectInsertValues(q._assigns, DOUBLE_QUOTE, colList, valList, paramList)
+        query.append(colList.join(COMMA)).append(') VALUES (').append(valList.join(COMMA)).append(') ').append(NL)
+        query.append('ON CONFLICT (').append(___expandProjection(q.conflictColumns, paramList, QContextType.INSERT_PROJECTION))
+                .append(') DO UPDATE SET ').append(___expandUpsertAssignments(q, paramList))
+
+        QueryType queryType = QueryType.UPDATE
+        if (q.returningType == UpsertQuery.ReturnType.RECORD_AFTER) {
+            query.append(' ').append(NL).append('RETURNING *')
+            queryType = QueryType.SELECT
+        } else if (q.returningType == UpsertQuery.ReturnType.CUSTOM) {
+            query.append(' ').append(NL).append('RETURNING ').append(___expandProjection(q.returningColumns, paramList, QContextType.SELECT))
+            queryType = QueryType.SELECT
+        }
+        createProxy(query.toString(), queryType, paramList, null, null)
+    }
+
+    /**
+     * Inserts the record ignoring conflicts on the declared unique key, and returns either the
+     * inserted record or the existing record. Existing record is not visible to the insert,
+     * so both are combined.
+     */
+    @CompileStatic
+    @Override
+    QResultProxy ___insertOrLoadQuery(InsertOrQuery q) throws NyException {
+        if (!isSingleStatementInsertOrLoad(q) || !QUtils.notNullNorEmpty(q.conflictColumns)) {
+            return null
+        }
+
+        List<AParam> paramList = new LinkedList<>()
+        List<String> colList = new LinkedList<>()
+        List<String> valList = new LinkedList<>()
+        StringBuilder query = new StringBuilder()
+        query.append('WITH ins AS (INSERT INTO ').append(___tableName(q.sourceTbl, QContextType.INTO)).append(' (')
+        collectInsertValues(q._assigns, DOUBLE_QUOTE, colList, valList, paramList)
+        query.append(colList.join(COMMA)).append(') VALUES (').append(valList.join(COMMA)).append(') ')
+                .append('ON CONFLICT (').append(___expandProjection(q.conflictColumns, paramList, QContextType.INSERT_PROJECTION))
+                .append(') DO NOTHING RETURNING *) ').append(NL)
+        query.append('SELECT * FROM ins UNION ALL SELECT * FROM ')
+                .append(___deriveSource(q.sourceTbl, paramList, QContextType.FROM))
+                .append(' WHERE ').append(___expandConditions(q.whereObj, paramList, QContextType.CONDITIONAL))
+                .append(' LIMIT 1')
+
+        createProxy(query.toString(), QueryType.SELECT, paramList, null, null)
+    }
+
     @Override
     QDdl ___ddls() {
         DDL